@@ -4,56 +4,77 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.web.client.RestTemplateBuilder;
 import org.springframework.http.ResponseEntity;
-import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
 import org.springframework.stereotype.Service;
 import org.springframework.web.util.DefaultUriBuilderFactory;
 import ru.practicum.gateway.booking.dto.BookingRequestDto;
 import ru.practicum.gateway.booking.dto.State;
 import ru.practicum.gateway.client.BaseClient;
+import ru.practicum.gateway.client.NonBlockingServerClient;
+import ru.practicum.gateway.client.ResponseCache;
 
+import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 
 @Service
 public class BookingClient extends BaseClient {
     private static final String API_PREFIX = "/bookings";
 
     @Autowired
-    public BookingClient(@Value("${shareit-server.url}") String serverUrl, RestTemplateBuilder builder) {
+    public BookingClient(@Value("${shareit-server.url}") String serverUrl,
+                         @Value("${shareit-server.streaming:true}") boolean streaming,
+                         RestTemplateBuilder builder, NonBlockingServerClient nonBlocking,
+                         ResponseCache cache) {
         super(
                 builder
                         .uriTemplateHandler(new DefaultUriBuilderFactory(serverUrl + API_PREFIX))
-                        .requestFactory(HttpComponentsClientHttpRequestFactory::new)
-                        .build()
+                        .build(),
+                streaming,
+                nonBlocking,
+                cache
         );
     }
 
-    public ResponseEntity<Object> getBookings(long userId, State state, Integer from, Integer size) {
-        Map<String, Object> parameters = Map.of(
-                "state", state.name(),
-                "from", from,
-                "size", size
-        );
-        return get("?state={state}&from={from}&size={size}", userId, parameters);
+    public CompletableFuture<ResponseEntity<Object>> getBookings(long userId, State state, Integer from, Integer size,
+                                                                 String cursor) {
+        return get(pageQuery("", cursor), userId, pageParameters(state, from, size, cursor));
     }
 
 
-    public ResponseEntity<Object> create(long userId, BookingRequestDto requestDto) {
+    public CompletableFuture<ResponseEntity<Object>> create(long userId, BookingRequestDto requestDto) {
         return post("", userId, requestDto);
     }
 
-    public ResponseEntity<Object> getById(long userId, long bookingId) {
+    public CompletableFuture<ResponseEntity<Object>> getById(long userId, long bookingId) {
         return get("/" + bookingId, userId);
     }
 
-    public ResponseEntity<Object> setApproved(long userId, long bookingId, Boolean approved) {
+    public CompletableFuture<ResponseEntity<Object>> setApproved(long userId, long bookingId, Boolean approved) {
         return patch("/" + bookingId + "?approved=" + approved, userId);
     }
 
-    public ResponseEntity<Object> getAllReserve(Long userId, State state, Integer from, Integer size) {
-        Map<String, Object> parameters = Map.of(
-                "state", state.name(),
-                "from", from,
-                "size", size);
-        return get("/owner?state={state}&from={from}&size={size}", userId, parameters);
+    public CompletableFuture<ResponseEntity<Object>> getAllReserve(Long userId, State state, Integer from, Integer size,
+                                                                   String cursor) {
+        return get(pageQuery("/owner", cursor), userId, pageParameters(state, from, size, cursor));
+    }
+
+    public CompletableFuture<ResponseEntity<Object>> getOwnerSummary(long userId) {
+        return get("/owner/summary", userId);
+    }
+
+    private static String pageQuery(String path, String cursor) {
+        String query = path + "?state={state}&from={from}&size={size}";
+        return cursor == null ? query : query + "&cursor={cursor}";
+    }
+
+    private static Map<String, Object> pageParameters(State state, Integer from, Integer size, String cursor) {
+        Map<String, Object> parameters = new HashMap<>();
+        parameters.put("state", state.name());
+        parameters.put("from", from);
+        parameters.put("size", size);
+        if (cursor != null) {
+            parameters.put("cursor", cursor);
+        }
+        return parameters;
     }
 }
\ No newline at end of file
@@ -13,6 +13,7 @@ import ru.practicum.gateway.booking.dto.State;
 import javax.validation.Valid;
 import javax.validation.constraints.Positive;
 import javax.validation.constraints.PositiveOrZero;
+import java.util.concurrent.CompletableFuture;
 
 @Controller
 @RequestMapping(path = "/bookings")
@@ -24,36 +25,37 @@ public class BookingController {
     private static final String REQUEST_HEADER = "X-Sharer-User-Id";
 
     @GetMapping
-    public ResponseEntity<Object> getAllReservation(@RequestHeader(REQUEST_HEADER) long userId,
-                                                    @RequestParam(name = "state", defaultValue = "all") String stateParam,
-                                                    @PositiveOrZero @RequestParam(name = "from", defaultValue = "0") Integer from,
-                                                    @Positive @RequestParam(name = "size", defaultValue = "10") Integer size) {
+    public CompletableFuture<ResponseEntity<Object>> getAllReservation(@RequestHeader(REQUEST_HEADER) long userId,
+                                                                       @RequestParam(name = "state", defaultValue = "all") String stateParam,
+                                                                       @PositiveOrZero @RequestParam(name = "from", defaultValue = "0") Integer from,
+                                                                       @Positive @RequestParam(name = "size", defaultValue = "10") Integer size,
+                                                                       @RequestParam(name = "cursor", required = false) String cursor) {
         State state = State.from(stateParam)
                 .orElseThrow(() -> new IllegalArgumentException("Unknown state: " + stateParam));
         log.info("Get booking with state {}, userId={}, from={}, size={}", stateParam, userId, from, size);
-        return bookingClient.getBookings(userId, state, from, size);
+        return bookingClient.getBookings(userId, state, from, size, cursor);
     }
 
     @PostMapping
-    public ResponseEntity<Object> addReservation(@RequestHeader(REQUEST_HEADER) long userId,
-                                                 @RequestBody @Valid BookingRequestDto requestDto,
-                                                 BindingResult result) {
+    public CompletableFuture<ResponseEntity<Object>> addReservation(@RequestHeader(REQUEST_HEADER) long userId,
+                                                                    @RequestBody @Valid BookingRequestDto requestDto,
+                                                                    BindingResult result) {
         log.info("Creating booking {}, userId={}", requestDto, userId);
         return bookingClient.create(userId, requestDto);
     }
 
     @GetMapping("/{bookingId}")
-    public ResponseEntity<Object> getBooking(@RequestHeader(REQUEST_HEADER) long userId,
-                                             @PathVariable Long bookingId) {
+    public CompletableFuture<ResponseEntity<Object>> getBooking(@RequestHeader(REQUEST_HEADER) long userId,
+                                                                @PathVariable Long bookingId) {
         log.info("Get booking {}, userId={}", bookingId, userId);
         return bookingClient.getById(userId, bookingId);
     }
 
 
     @PatchMapping("/{bookingId}")
-    public ResponseEntity<Object> updateStatus(@RequestHeader(REQUEST_HEADER) Long userId,
-                                               @PathVariable("bookingId") Long bookingId,
-                                               @RequestParam("approved") Boolean approved) {
+    public CompletableFuture<ResponseEntity<Object>> updateStatus(@RequestHeader(REQUEST_HEADER) Long userId,
+                                                                  @PathVariable("bookingId") Long bookingId,
+                                                                  @RequestParam("approved") Boolean approved) {
         log.info("Получен запрос к эндпоинту /bookings updateStatus с headers {}, с bookingId {}, статус {}",
                 userId, bookingId, approved);
         return bookingClient.setApproved(userId, bookingId, approved);
@@ -61,14 +63,21 @@ public class BookingController {
 
 
     @GetMapping("/owner")
-    public ResponseEntity<Object> getReservationForOwner(@RequestHeader(REQUEST_HEADER) Long userId,
-                                                         @RequestParam(value = "state", defaultValue = "ALL") String stateParam,
-                                                         @RequestParam(name = "from", defaultValue = "0") @PositiveOrZero Integer from,
-                                                         @RequestParam(name = "size", defaultValue = "10") @Positive Integer size) {
+    public CompletableFuture<ResponseEntity<Object>> getReservationForOwner(@RequestHeader(REQUEST_HEADER) Long userId,
+                                                                            @RequestParam(value = "state", defaultValue = "ALL") String stateParam,
+                                                                            @RequestParam(name = "from", defaultValue = "0") @PositiveOrZero Integer from,
+                                                                            @RequestParam(name = "size", defaultValue = "10") @Positive Integer size,
+                                                                            @RequestParam(name = "cursor", required = false) String cursor) {
         log.info("Получен запрос к эндпоинту /bookings getAllReservation с state {}", stateParam);
         State state = State.from(stateParam)
                 .orElseThrow(() -> new IllegalArgumentException("Unknown state: " + stateParam));
         log.info("Get booking with state {}, userId={}, from={}, size={}", stateParam, userId, from, size);
-        return bookingClient.getAllReserve(userId, state, from, size);
+        return bookingClient.getAllReserve(userId, state, from, size, cursor);
+    }
+
+    @GetMapping("/owner/summary")
+    public CompletableFuture<ResponseEntity<Object>> getOwnerSummary(@RequestHeader(REQUEST_HEADER) long userId) {
+        log.info("Get booking summary for owner, userId={}", userId);
+        return bookingClient.getOwnerSummary(userId);
     }
 }
\ No newline at end of file
@@ -1,104 +1,238 @@
 package ru.practicum.gateway.client;
 
+import org.springframework.core.io.InputStreamResource;
 import org.springframework.http.*;
+import org.springframework.http.client.ClientHttpRequest;
+import org.springframework.http.client.ClientHttpResponse;
 import org.springframework.lang.Nullable;
 import org.springframework.web.client.HttpStatusCodeException;
+import org.springframework.web.client.ResourceAccessException;
 import org.springframework.web.client.RestTemplate;
 
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.net.URI;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
 
 public class BaseClient {
+    /**
+     * Заголовки, относящиеся к соединению шлюза с сервером, а не к ответу.
+     */
+    static final Set<String> HOP_BY_HOP_HEADERS = Set.of("connection", "keep-alive", "transfer-encoding",
+            "te", "trailer", "upgrade", "proxy-authenticate", "proxy-authorization");
+
     protected final RestTemplate rest;
+    private final boolean streaming;
+    @Nullable
+    private final NonBlockingServerClient nonBlocking;
+    @Nullable
+    private final ResponseCache cache;
 
     public BaseClient(RestTemplate rest) {
+        this(rest, false, null, null);
+    }
+
+    /**
+     * @param streaming   true - ответ сервера отдаётся клиенту потоком байт без разбора JSON
+     * @param nonBlocking если включён, запросы уходят через него и не занимают поток сервлета на время ожидания
+     * @param cache       кэш ответов на частые GET, сбрасывается запросами на изменение
+     */
+    public BaseClient(RestTemplate rest, boolean streaming, @Nullable NonBlockingServerClient nonBlocking,
+                      @Nullable ResponseCache cache) {
         this.rest = rest;
+        this.streaming = streaming;
+        this.nonBlocking = nonBlocking;
+        this.cache = cache;
     }
 
-    protected ResponseEntity<Object> get(String path) {
+    protected CompletableFuture<ResponseEntity<Object>> get(String path) {
         return get(path, null, null);
     }
 
-    protected ResponseEntity<Object> get(String path, long userId) {
+    protected CompletableFuture<ResponseEntity<Object>> get(String path, long userId) {
         return get(path, userId, null);
     }
 
-    protected ResponseEntity<Object> get(String path, Long userId, @Nullable Map<String, Object> parameters) {
+    protected CompletableFuture<ResponseEntity<Object>> get(String path, Long userId,
+                                                            @Nullable Map<String, Object> parameters) {
         return makeAndSendRequest(HttpMethod.GET, path, userId, parameters, null);
     }
 
-    protected ResponseEntity<Object> get(String path, @Nullable Map<String, Object> parameters) {
+    protected CompletableFuture<ResponseEntity<Object>> get(String path, @Nullable Map<String, Object> parameters) {
         return makeAndSendRequest(HttpMethod.GET, path, null, parameters, null);
     }
 
-    protected <T> ResponseEntity<Object> post(String path, T body) {
+    protected <T> CompletableFuture<ResponseEntity<Object>> post(String path, T body) {
         return post(path, null, null, body);
     }
 
-    protected <T> ResponseEntity<Object> post(String path, long userId, T body) {
+    protected <T> CompletableFuture<ResponseEntity<Object>> post(String path, long userId, T body) {
         return post(path, userId, null, body);
     }
 
-    protected <T> ResponseEntity<Object> post(String path, Long userId, @Nullable Map<String, Object> parameters,
-                                              T body) {
+    protected <T> CompletableFuture<ResponseEntity<Object>> post(String path, Long userId,
+                                                                 @Nullable Map<String, Object> parameters, T body) {
         return makeAndSendRequest(HttpMethod.POST, path, userId, parameters, body);
     }
 
-    protected <T> ResponseEntity<Object> put(String path, long userId, T body) {
+    protected <T> CompletableFuture<ResponseEntity<Object>> put(String path, long userId, T body) {
         return put(path, userId, null, body);
     }
 
-    protected <T> ResponseEntity<Object> put(String path, long userId, @Nullable Map<String, Object> parameters,
-                                             T body) {
+    protected <T> CompletableFuture<ResponseEntity<Object>> put(String path, long userId,
+                                                                @Nullable Map<String, Object> parameters, T body) {
         return makeAndSendRequest(HttpMethod.PUT, path, userId, parameters, body);
     }
 
-    protected <T> ResponseEntity<Object> patch(String path, T body) {
+    protected <T> CompletableFuture<ResponseEntity<Object>> patch(String path, T body) {
         return patch(path, null, null, body);
     }
 
-    protected <T> ResponseEntity<Object> patch(String path, long userId) {
+    protected <T> CompletableFuture<ResponseEntity<Object>> patch(String path, long userId) {
         return patch(path, userId, null, null);
     }
 
-    protected <T> ResponseEntity<Object> patch(String path, long userId, T body) {
+    protected <T> CompletableFuture<ResponseEntity<Object>> patch(String path, long userId, T body) {
         return patch(path, userId, null, body);
     }
 
-    protected <T> ResponseEntity<Object> patch(String path, Long userId, @Nullable Map<String, Object> parameters,
-                                               T body) {
+    protected <T> CompletableFuture<ResponseEntity<Object>> patch(String path, Long userId,
+                                                                  @Nullable Map<String, Object> parameters, T body) {
         return makeAndSendRequest(HttpMethod.PATCH, path, userId, parameters, body);
     }
 
-    protected ResponseEntity<Object> delete(String path) {
+    protected CompletableFuture<ResponseEntity<Object>> delete(String path) {
         return delete(path, null, null);
     }
 
-    protected ResponseEntity<Object> delete(String path, long userId) {
+    protected CompletableFuture<ResponseEntity<Object>> delete(String path, long userId) {
         return delete(path, userId, null);
     }
 
-    protected ResponseEntity<Object> delete(String path, Long userId, @Nullable Map<String, Object> parameters) {
+    protected CompletableFuture<ResponseEntity<Object>> delete(String path, Long userId,
+                                                               @Nullable Map<String, Object> parameters) {
         return makeAndSendRequest(HttpMethod.DELETE, path, userId, parameters, null);
     }
 
-    private <T> ResponseEntity<Object> makeAndSendRequest(HttpMethod method, String path, Long userId,
-                                                          @Nullable Map<String, Object> parameters, @Nullable T body) {
+    private <T> CompletableFuture<ResponseEntity<Object>> makeAndSendRequest(
+            HttpMethod method, String path, Long userId, @Nullable Map<String, Object> parameters, @Nullable T body) {
         HttpEntity<T> requestEntity = new HttpEntity<>(body, defaultHeaders(userId));
+        URI uri = rest.getUriTemplateHandler().expand(path, parameters != null ? parameters : Map.of());
+        if (cache == null) {
+            return send(method, uri, requestEntity);
+        }
+        if (method == HttpMethod.GET && cache.isCacheable(uri)) {
+            return cache.get(uri, userId, etag -> fetchBytes(uri, conditional(requestEntity, etag)));
+        }
+        if (method == HttpMethod.GET) {
+            return send(method, uri, requestEntity);
+        }
+        cache.invalidate(uri);
+        return send(method, uri, requestEntity).whenComplete((response, e) -> cache.invalidate(uri));
+    }
+
+    private <T> CompletableFuture<ResponseEntity<Object>> send(HttpMethod method, URI uri,
+                                                               HttpEntity<T> requestEntity) {
+        if (nonBlocking != null && nonBlocking.isEnabled()) {
+            return nonBlocking.exchange(method, uri, requestEntity);
+        }
+        if (streaming) {
+            return CompletableFuture.completedFuture(stream(method, uri, requestEntity));
+        }
+        return CompletableFuture.completedFuture(exchange(method, uri, requestEntity));
+    }
+
+    /**
+     * GET для кэша: тело нужно целиком в байтах, поэтому ответ не разбирается и не отдаётся потоком.
+     */
+    private <T> CompletableFuture<ResponseEntity<Object>> fetchBytes(URI uri, HttpEntity<T> requestEntity) {
+        if (nonBlocking != null && nonBlocking.isEnabled()) {
+            return nonBlocking.exchange(HttpMethod.GET, uri, requestEntity);
+        }
+        try {
+            ResponseEntity<byte[]> response = rest.exchange(uri, HttpMethod.GET, requestEntity, byte[].class);
+            return CompletableFuture.completedFuture(ResponseEntity.status(response.getStatusCode())
+                    .headers(withoutHopByHop(response.getHeaders()))
+                    .body(response.getBody()));
+        } catch (HttpStatusCodeException e) {
+            return CompletableFuture.completedFuture(errorResponse(e));
+        }
+    }
+
+    private <T> HttpEntity<T> conditional(HttpEntity<T> requestEntity, @Nullable String etag) {
+        if (etag == null) {
+            return requestEntity;
+        }
+        HttpHeaders headers = new HttpHeaders();
+        headers.putAll(requestEntity.getHeaders());
+        headers.setIfNoneMatch(etag);
+        return new HttpEntity<>(requestEntity.getBody(), headers);
+    }
 
+    private <T> ResponseEntity<Object> exchange(HttpMethod method, URI uri, HttpEntity<T> requestEntity) {
         ResponseEntity<Object> shareitServerResponse;
         try {
-            if (parameters != null) {
-                shareitServerResponse = rest.exchange(path, method, requestEntity, Object.class, parameters);
-            } else {
-                shareitServerResponse = rest.exchange(path, method, requestEntity, Object.class);
-            }
+            shareitServerResponse = rest.exchange(uri, method, requestEntity, Object.class);
         } catch (HttpStatusCodeException e) {
-            return ResponseEntity.status(e.getStatusCode()).body(e.getResponseBodyAsByteArray());
+            return errorResponse(e);
         }
         return prepareGatewayResponse(shareitServerResponse);
     }
 
+    /**
+     * Пересылает запрос и возвращает статус, заголовки и тело ответа сервера как есть.
+     * Тело не читается здесь: оно копируется в ответ шлюза при записи, после чего соединение возвращается в пул.
+     */
+    private <T> ResponseEntity<Object> stream(HttpMethod method, URI uri, HttpEntity<T> requestEntity) {
+        ClientHttpResponse response;
+        try {
+            ClientHttpRequest request = rest.getRequestFactory().createRequest(uri, method);
+            rest.httpEntityCallback(requestEntity).doWithRequest(request);
+            response = request.execute();
+        } catch (IOException e) {
+            throw new ResourceAccessException("Ошибка запроса " + method + " " + uri + ": " + e.getMessage(), e);
+        }
+        try {
+            HttpHeaders headers = withoutHopByHop(response.getHeaders());
+            ResponseEntity.BodyBuilder responseBuilder = ResponseEntity.status(response.getRawStatusCode())
+                    .headers(headers);
+            if (headers.getContentLength() == 0 || response.getRawStatusCode() == HttpStatus.NO_CONTENT.value()
+                    || response.getRawStatusCode() == HttpStatus.NOT_MODIFIED.value()) {
+                response.close();
+                return responseBuilder.build();
+            }
+            return responseBuilder.body(new InputStreamResource(new ResponseBodyStream(response)));
+        } catch (IOException e) {
+            response.close();
+            throw new ResourceAccessException("Ошибка ответа " + method + " " + uri + ": " + e.getMessage(), e);
+        } catch (RuntimeException e) {
+            response.close();
+            throw e;
+        }
+    }
+
+    /**
+     * Ответ сервера с ошибкой отдаётся как есть: статус, заголовки и тело в байтах.
+     */
+    private static ResponseEntity<Object> errorResponse(HttpStatusCodeException e) {
+        HttpHeaders response = e.getResponseHeaders();
+        HttpHeaders headers = response != null ? withoutHopByHop(response) : new HttpHeaders();
+        return ResponseEntity.status(e.getStatusCode()).headers(headers).body(e.getResponseBodyAsByteArray());
+    }
+
+    private static HttpHeaders withoutHopByHop(HttpHeaders response) {
+        HttpHeaders headers = new HttpHeaders();
+        response.forEach((name, values) -> {
+            if (!HOP_BY_HOP_HEADERS.contains(name.toLowerCase())) {
+                headers.addAll(name, values);
+            }
+        });
+        return headers;
+    }
+
     private HttpHeaders defaultHeaders(Long userId) {
         HttpHeaders headers = new HttpHeaders();
         headers.setContentType(MediaType.APPLICATION_JSON);
@@ -122,4 +256,21 @@ public class BaseClient {
 
         return responseBuilder.build();
     }
-}
\ No newline at end of file
+
+    /**
+     * Тело ответа сервера; закрытие возвращает соединение в пул.
+     */
+    private static final class ResponseBodyStream extends FilterInputStream {
+        private final ClientHttpResponse response;
+
+        private ResponseBodyStream(ClientHttpResponse response) throws IOException {
+            super(response.getBody());
+            this.response = response;
+        }
+
+        @Override
+        public void close() {
+            response.close();
+        }
+    }
+}
@@ -0,0 +1,191 @@
+package ru.practicum.gateway.client;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.ResourceAccessException;
+import ru.practicum.gateway.exceptions.GatewayOverloadedException;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Неблокирующая отправка запросов к серверу на java.net.http.HttpClient.
+ * Ответ приходит в CompletableFuture, поток сервлета освобождается на время ожидания сервера.
+ * Одновременно к серверу идёт не больше maxInFlight запросов, следующие ждут в очереди до maxQueued,
+ * остальные сразу получают 503, чтобы медленный сервер не копил в шлюзе неограниченное число запросов.
+ * Тело ответа пересылается байтами без разбора JSON.
+ */
+@Slf4j
+@Component
+public class NonBlockingServerClient implements MeterBinder {
+
+    private final boolean enabled;
+    private final int maxInFlight;
+    private final int maxQueued;
+    private final Duration readTimeout;
+    private final ObjectMapper objectMapper;
+    private final HttpClient http;
+    private final Queue<Runnable> queued = new ArrayDeque<>();
+    private final LongAdder rejected = new LongAdder();
+    private int inFlight;
+
+    public NonBlockingServerClient(@Value("${shareit-server.non-blocking.enabled:false}") boolean enabled,
+                                   @Value("${shareit-server.non-blocking.max-in-flight:2000}") int maxInFlight,
+                                   @Value("${shareit-server.non-blocking.max-queued:10000}") int maxQueued,
+                                   @Value("${shareit-server.http.connect-timeout:PT2S}") Duration connectTimeout,
+                                   @Value("${shareit-server.http.read-timeout:PT30S}") Duration readTimeout,
+                                   ObjectMapper objectMapper) {
+        this.enabled = enabled;
+        this.maxInFlight = maxInFlight;
+        this.maxQueued = maxQueued;
+        this.readTimeout = readTimeout;
+        this.objectMapper = objectMapper;
+        this.http = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(connectTimeout)
+                .build();
+        if (enabled) {
+            log.info("Неблокирующий клиент сервера: одновременно {}, в очереди {}", maxInFlight, maxQueued);
+        }
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Отправляет запрос, как только освободится место среди выполняемых.
+     *
+     * @throws GatewayOverloadedException если очередь ожидающих запросов заполнена
+     */
+    public <T> CompletableFuture<ResponseEntity<Object>> exchange(HttpMethod method, URI uri,
+                                                                  HttpEntity<T> requestEntity) {
+        HttpRequest request = toRequest(method, uri, requestEntity);
+        CompletableFuture<ResponseEntity<Object>> result = new CompletableFuture<>();
+        Runnable send = () -> send(request, result);
+        synchronized (this) {
+            if (inFlight >= maxInFlight) {
+                if (queued.size() >= maxQueued) {
+                    rejected.increment();
+                    throw new GatewayOverloadedException("Превышено число одновременных запросов к серверу");
+                }
+                queued.add(send);
+                return result;
+            }
+            inFlight++;
+        }
+        send.run();
+        return result;
+    }
+
+    public synchronized int getInFlight() {
+        return inFlight;
+    }
+
+    public synchronized int getQueued() {
+        return queued.size();
+    }
+
+    public long getRejected() {
+        return rejected.sum();
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("shareit.gateway.non-blocking.in-flight", this, NonBlockingServerClient::getInFlight)
+                .register(registry);
+        Gauge.builder("shareit.gateway.non-blocking.queued", this, NonBlockingServerClient::getQueued)
+                .register(registry);
+        FunctionCounter.builder("shareit.gateway.non-blocking.rejected", this, NonBlockingServerClient::getRejected)
+                .register(registry);
+    }
+
+    private void send(HttpRequest request, CompletableFuture<ResponseEntity<Object>> result) {
+        try {
+            http.sendAsync(request, HttpResponse.BodyHandlers.ofByteArray())
+                    .whenComplete((response, e) -> {
+                        release();
+                        if (e != null) {
+                            result.completeExceptionally(toResourceAccess(request, e));
+                        } else {
+                            result.complete(toResponseEntity(response));
+                        }
+                    });
+        } catch (RuntimeException e) {
+            release();
+            result.completeExceptionally(e);
+        }
+    }
+
+    /**
+     * Освобождает место выполненного запроса или сразу передаёт его следующему из очереди.
+     */
+    private void release() {
+        Runnable next;
+        synchronized (this) {
+            next = queued.poll();
+            if (next == null) {
+                inFlight--;
+            }
+        }
+        if (next != null) {
+            next.run();
+        }
+    }
+
+    private <T> HttpRequest toRequest(HttpMethod method, URI uri, HttpEntity<T> requestEntity) {
+        HttpRequest.BodyPublisher body;
+        try {
+            body = requestEntity.hasBody()
+                    ? HttpRequest.BodyPublishers.ofByteArray(objectMapper.writeValueAsBytes(requestEntity.getBody()))
+                    : HttpRequest.BodyPublishers.noBody();
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException("Не удалось сериализовать тело запроса: " + e.getMessage(), e);
+        }
+        HttpRequest.Builder builder = HttpRequest.newBuilder(uri)
+                .timeout(readTimeout)
+                .method(method.name(), body);
+        requestEntity.getHeaders().forEach((name, values) -> values.forEach(value -> builder.header(name, value)));
+        return builder.build();
+    }
+
+    private ResponseEntity<Object> toResponseEntity(HttpResponse<byte[]> response) {
+        HttpHeaders headers = new HttpHeaders();
+        response.headers().map().forEach((name, values) -> {
+            if (!name.startsWith(":") && !BaseClient.HOP_BY_HOP_HEADERS.contains(name.toLowerCase())) {
+                headers.addAll(name, values);
+            }
+        });
+        ResponseEntity.BodyBuilder responseBuilder = ResponseEntity.status(response.statusCode()).headers(headers);
+        byte[] body = response.body();
+        return body == null || body.length == 0 ? responseBuilder.build() : responseBuilder.body(body);
+    }
+
+    private static ResourceAccessException toResourceAccess(HttpRequest request, Throwable e) {
+        Throwable cause = e instanceof CompletionException && e.getCause() != null ? e.getCause() : e;
+        String message = "Ошибка запроса " + request.method() + " " + request.uri() + ": " + cause.getMessage();
+        return cause instanceof IOException
+                ? new ResourceAccessException(message, (IOException) cause)
+                : new ResourceAccessException(message);
+    }
+}
@@ -0,0 +1,238 @@
+package ru.practicum.gateway.client;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Component;
+
+import java.net.URI;
+import java.time.Duration;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+import java.util.function.Predicate;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Кэш ответов сервера на GET /items/{id}, /requests/all и /users/{id}.
+ * Ключ - путь, строка запроса и X-Sharer-User-Id. Запись отдаётся без обращения к серверу в течение ttl,
+ * после этого перепроверяется по ETag: на 304 снова считается свежей, на 200 заменяется.
+ * Объём тел ограничен max-bytes, вытесняются давно не читанные записи. Запросы на изменение, прошедшие через шлюз,
+ * сбрасывают записи, которые могли устареть.
+ */
+@Component
+public class ResponseCache implements MeterBinder {
+
+    private static final Pattern CACHEABLE = Pattern.compile("/items/\\d+|/requests/all|/users/\\d+");
+    private static final Pattern ITEM = Pattern.compile("/items/\\d+");
+
+    private final boolean enabled;
+    private final long maxBytes;
+    private final long ttlNanos;
+    private final Map<String, Entry> entries = new LinkedHashMap<>(16, 0.75f, true);
+    private final AtomicLong generation = new AtomicLong();
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder revalidated = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private long bytes;
+
+    public ResponseCache(@Value("${shareit-server.cache.enabled:true}") boolean enabled,
+                         @Value("${shareit-server.cache.max-bytes:16777216}") long maxBytes,
+                         @Value("${shareit-server.cache.ttl:PT30S}") Duration ttl) {
+        this.enabled = enabled;
+        this.maxBytes = maxBytes;
+        this.ttlNanos = ttl.toNanos();
+    }
+
+    public boolean isCacheable(URI uri) {
+        return enabled && CACHEABLE.matcher(uri.getRawPath()).matches();
+    }
+
+    /**
+     * Возвращает ответ из кэша или получает его через fetch.
+     * fetch получает ETag устаревшей записи для If-None-Match или null, если перепроверять нечего.
+     * Если пока шёл запрос кэш сбрасывался, полученный ответ в кэш не попадёт.
+     */
+    public CompletableFuture<ResponseEntity<Object>> get(URI uri, @Nullable Long userId,
+                                                         Function<String, CompletableFuture<ResponseEntity<Object>>> fetch) {
+        String key = uri.getRawPath() + "?" + (uri.getRawQuery() != null ? uri.getRawQuery() : "") + "|" + userId;
+        long stamp = generation.get();
+        Entry cached;
+        synchronized (this) {
+            cached = entries.get(key);
+        }
+        if (cached != null && System.nanoTime() - cached.storedAt < ttlNanos) {
+            hits.increment();
+            return CompletableFuture.completedFuture(cached.toResponse());
+        }
+        return fetch.apply(cached != null ? cached.etag : null).thenApply(response -> {
+            if (cached != null && response.getStatusCodeValue() == HttpStatus.NOT_MODIFIED.value()) {
+                revalidated.increment();
+                put(key, cached.refreshed(), stamp);
+                return cached.toResponse();
+            }
+            misses.increment();
+            if (response.getStatusCodeValue() == HttpStatus.OK.value() && response.getBody() instanceof byte[]) {
+                put(key, new Entry(uri.getRawPath(), response.getHeaders(), (byte[]) response.getBody()), stamp);
+            }
+            return response;
+        });
+    }
+
+    /**
+     * Сбрасывает записи, которые мог изменить запрос на изменение по пути uri:
+     * пользователи входят во все ответы, вещи - в свои ответы и запросы, бронирования - в ответы вещей.
+     */
+    public void invalidate(URI uri) {
+        if (!enabled) {
+            return;
+        }
+        String path = uri.getRawPath();
+        if (path.startsWith("/users")) {
+            clear();
+            return;
+        }
+        if (path.startsWith("/items")) {
+            Matcher item = ITEM.matcher(path);
+            if (item.lookingAt()) {
+                String itemPath = item.group();
+                evict(entryPath -> entryPath.equals(itemPath));
+            }
+        }
+        if (path.startsWith("/items") || path.startsWith("/requests")) {
+            evict(entryPath -> entryPath.startsWith("/requests/"));
+        }
+        if (path.startsWith("/bookings")) {
+            evict(entryPath -> entryPath.startsWith("/items/"));
+        }
+    }
+
+    public synchronized void clear() {
+        generation.incrementAndGet();
+        entries.clear();
+        bytes = 0;
+    }
+
+    public long getHits() {
+        return hits.sum();
+    }
+
+    public long getRevalidated() {
+        return revalidated.sum();
+    }
+
+    public long getMisses() {
+        return misses.sum();
+    }
+
+    /**
+     * Доля ответов без повторной передачи тела сервером: свежие записи и подтверждённые 304.
+     */
+    public double getHitRatio() {
+        long served = getHits() + getRevalidated();
+        long total = served + getMisses();
+        return total == 0 ? 0 : (double) served / total;
+    }
+
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    public synchronized long getBytes() {
+        return bytes;
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        FunctionCounter.builder("shareit.gateway.cache.hits", this, ResponseCache::getHits)
+                .register(registry);
+        FunctionCounter.builder("shareit.gateway.cache.revalidated", this, ResponseCache::getRevalidated)
+                .register(registry);
+        FunctionCounter.builder("shareit.gateway.cache.misses", this, ResponseCache::getMisses)
+                .register(registry);
+        Gauge.builder("shareit.gateway.cache.hit-ratio", this, ResponseCache::getHitRatio)
+                .register(registry);
+        Gauge.builder("shareit.gateway.cache.size", this, ResponseCache::size)
+                .register(registry);
+        Gauge.builder("shareit.gateway.cache.bytes", this, ResponseCache::getBytes)
+                .register(registry);
+    }
+
+    private synchronized void put(String key, Entry entry, long stamp) {
+        if (generation.get() != stamp || entry.body.length > maxBytes) {
+            return;
+        }
+        Entry previous = entries.put(key, entry);
+        bytes += entry.body.length - (previous != null ? previous.body.length : 0);
+        Iterator<Entry> eldest = entries.values().iterator();
+        while (bytes > maxBytes && eldest.hasNext()) {
+            bytes -= eldest.next().body.length;
+            eldest.remove();
+        }
+    }
+
+    private synchronized void evict(Predicate<String> path) {
+        generation.incrementAndGet();
+        Iterator<Entry> iterator = entries.values().iterator();
+        while (iterator.hasNext()) {
+            Entry entry = iterator.next();
+            if (path.test(entry.path)) {
+                bytes -= entry.body.length;
+                iterator.remove();
+            }
+        }
+    }
+
+    private static final class Entry {
+        private final String path;
+        private final HttpHeaders headers;
+        private final byte[] body;
+        @Nullable
+        private final String etag;
+        private final long storedAt;
+
+        private Entry(String path, HttpHeaders response, byte[] body) {
+            this(path, cachedHeaders(response), body, System.nanoTime());
+        }
+
+        private Entry(String path, HttpHeaders headers, byte[] body, long storedAt) {
+            this.path = path;
+            this.headers = headers;
+            this.body = body;
+            this.etag = headers.getETag();
+            this.storedAt = storedAt;
+        }
+
+        private Entry refreshed() {
+            return new Entry(path, headers, body, System.nanoTime());
+        }
+
+        private ResponseEntity<Object> toResponse() {
+            return ResponseEntity.ok().headers(headers).body(body);
+        }
+
+        private static HttpHeaders cachedHeaders(HttpHeaders response) {
+            HttpHeaders headers = new HttpHeaders();
+            MediaType contentType = response.getContentType();
+            if (contentType != null) {
+                headers.setContentType(contentType);
+            }
+            if (response.getETag() != null) {
+                headers.setETag(response.getETag());
+            }
+            return HttpHeaders.readOnlyHttpHeaders(headers);
+        }
+    }
+}
@@ -0,0 +1,167 @@
+package ru.practicum.gateway.client;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.http.HttpClientConnection;
+import org.apache.http.client.config.RequestConfig;
+import org.apache.http.conn.ConnectionPoolTimeoutException;
+import org.apache.http.conn.ConnectionRequest;
+import org.apache.http.conn.ConnectionKeepAliveStrategy;
+import org.apache.http.conn.routing.HttpRoute;
+import org.apache.http.impl.client.CloseableHttpClient;
+import org.apache.http.impl.client.DefaultConnectionKeepAliveStrategy;
+import org.apache.http.impl.client.HttpClients;
+import org.apache.http.impl.conn.PoolingHttpClientConnectionManager;
+import org.apache.http.pool.PoolStats;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.web.client.RestTemplateCustomizer;
+import org.springframework.http.client.ClientHttpRequestFactory;
+import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.RestTemplate;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.ToDoubleFunction;
+
+/**
+ * Общий пул HTTP-соединений шлюза к серверу.
+ * Каждый RestTemplate, собранный через RestTemplateBuilder (все клиенты {@link BaseClient}),
+ * получает одну и ту же фабрику запросов, поэтому лимиты пула, таймауты и метрики действуют
+ * на весь шлюз, а не на отдельный клиент. Настройки - shareit-server.http.* в application.properties.
+ */
+@Slf4j
+@Component
+public class ServerHttpClient implements RestTemplateCustomizer, MeterBinder, DisposableBean {
+
+    private final LeaseTimingConnectionManager connectionManager;
+    private final CloseableHttpClient httpClient;
+    private final HttpComponentsClientHttpRequestFactory requestFactory;
+    private final AtomicInteger inFlight = new AtomicInteger();
+
+    public ServerHttpClient(@Value("${shareit-server.http.max-total:200}") int maxTotal,
+                            @Value("${shareit-server.http.max-per-route:200}") int maxPerRoute,
+                            @Value("${shareit-server.http.connect-timeout:PT2S}") Duration connectTimeout,
+                            @Value("${shareit-server.http.read-timeout:PT30S}") Duration readTimeout,
+                            @Value("${shareit-server.http.lease-timeout:PT2S}") Duration leaseTimeout,
+                            @Value("${shareit-server.http.keep-alive:PT30S}") Duration keepAlive,
+                            @Value("${shareit-server.http.idle-timeout:PT60S}") Duration idleTimeout) {
+        connectionManager = new LeaseTimingConnectionManager();
+        connectionManager.setMaxTotal(maxTotal);
+        connectionManager.setDefaultMaxPerRoute(maxPerRoute);
+        RequestConfig requestConfig = RequestConfig.custom()
+                .setConnectTimeout((int) connectTimeout.toMillis())
+                .setSocketTimeout((int) readTimeout.toMillis())
+                .setConnectionRequestTimeout((int) leaseTimeout.toMillis())
+                .build();
+        httpClient = HttpClients.custom()
+                .setConnectionManager(connectionManager)
+                .setDefaultRequestConfig(requestConfig)
+                .setKeepAliveStrategy(keepAliveStrategy(keepAlive.toMillis()))
+                .evictExpiredConnections()
+                .evictIdleConnections(idleTimeout.toMillis(), TimeUnit.MILLISECONDS)
+                .build();
+        requestFactory = new HttpComponentsClientHttpRequestFactory(httpClient);
+        log.info("Пул соединений к серверу: всего {}, на маршрут {}, соединение {}, чтение {}, ожидание пула {}",
+                maxTotal, maxPerRoute, connectTimeout, readTimeout, leaseTimeout);
+    }
+
+    @Override
+    public void customize(RestTemplate restTemplate) {
+        restTemplate.setRequestFactory(requestFactory);
+        restTemplate.getInterceptors().add((request, body, execution) -> {
+            inFlight.incrementAndGet();
+            try {
+                return execution.execute(request, body);
+            } finally {
+                inFlight.decrementAndGet();
+            }
+        });
+    }
+
+    public ClientHttpRequestFactory getRequestFactory() {
+        return requestFactory;
+    }
+
+    public int getInFlight() {
+        return inFlight.get();
+    }
+
+    public PoolStats getPoolStats() {
+        return connectionManager.getTotalStats();
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        connectionManager.leaseTimer = Timer.builder("shareit.gateway.http.lease")
+                .description("Ожидание свободного соединения в пуле")
+                .publishPercentiles(0.5, 0.99)
+                .register(registry);
+        pool(registry, "shareit.gateway.http.pool.leased", PoolStats::getLeased);
+        pool(registry, "shareit.gateway.http.pool.available", PoolStats::getAvailable);
+        pool(registry, "shareit.gateway.http.pool.pending", PoolStats::getPending);
+        pool(registry, "shareit.gateway.http.pool.max", PoolStats::getMax);
+        Gauge.builder("shareit.gateway.http.in-flight", inFlight, AtomicInteger::get)
+                .register(registry);
+    }
+
+    @Override
+    public void destroy() throws IOException {
+        httpClient.close();
+    }
+
+    private void pool(MeterRegistry registry, String name, ToDoubleFunction<PoolStats> value) {
+        Gauge.builder(name, connectionManager, manager -> value.applyAsDouble(manager.getTotalStats()))
+                .register(registry);
+    }
+
+    /**
+     * Держит соединение не дольше keepAlive, даже если сервер разрешает больше или ничего не сообщает.
+     */
+    private static ConnectionKeepAliveStrategy keepAliveStrategy(long keepAlive) {
+        return (response, context) -> {
+            long server = DefaultConnectionKeepAliveStrategy.INSTANCE.getKeepAliveDuration(response, context);
+            return server > 0 ? Math.min(server, keepAlive) : keepAlive;
+        };
+    }
+
+    /**
+     * Пул, который замеряет время от запроса соединения до его выдачи.
+     */
+    private static final class LeaseTimingConnectionManager extends PoolingHttpClientConnectionManager {
+
+        private volatile Timer leaseTimer;
+
+        @Override
+        public ConnectionRequest requestConnection(HttpRoute route, Object state) {
+            ConnectionRequest request = super.requestConnection(route, state);
+            long requested = System.nanoTime();
+            return new ConnectionRequest() {
+                @Override
+                public HttpClientConnection get(long timeout, TimeUnit unit)
+                        throws InterruptedException, ExecutionException, ConnectionPoolTimeoutException {
+                    try {
+                        return request.get(timeout, unit);
+                    } finally {
+                        Timer timer = leaseTimer;
+                        if (timer != null) {
+                            timer.record(System.nanoTime() - requested, TimeUnit.NANOSECONDS);
+                        }
+                    }
+                }
+
+                @Override
+                public boolean cancel() {
+                    return request.cancel();
+                }
+            };
+        }
+    }
+}
@@ -63,6 +63,13 @@ public class ErrorHandler {
         return new ErrorResponse(exceptionType, errorMessage);
     }
 
+    @ExceptionHandler(GatewayOverloadedException.class)
+    @ResponseStatus(HttpStatus.SERVICE_UNAVAILABLE)
+    public ErrorResponse handleGatewayOverloadedException(final GatewayOverloadedException e) {
+        log.warn("Исключение GatewayOverloadedException {}", e.getMessage());
+        return new ErrorResponse("GatewayOverloadedException", e.getMessage());
+    }
+
     @ExceptionHandler(Throwable.class)
     @ResponseStatus(HttpStatus.INTERNAL_SERVER_ERROR)
     public ErrorResponse handleThrowableException(final Throwable e) {
@@ -0,0 +1,7 @@
+package ru.practicum.gateway.exceptions;
+
+public class GatewayOverloadedException extends RuntimeException {
+    public GatewayOverloadedException(String message) {
+        super(message);
+    }
+}
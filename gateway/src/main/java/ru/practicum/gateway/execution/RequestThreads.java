@@ -0,0 +1,55 @@
+package ru.practicum.gateway.execution;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.web.embedded.tomcat.TomcatProtocolHandlerCustomizer;
+import org.springframework.boot.web.embedded.tomcat.TomcatServletWebServerFactory;
+import org.springframework.boot.web.server.WebServerFactoryCustomizer;
+import org.springframework.stereotype.Component;
+
+import java.lang.reflect.Method;
+import java.util.Optional;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Режим потоков обработки запросов Tomcat: platform - стандартный пул, virtual - виртуальный поток на запрос.
+ * В режиме virtual вызовы сервера через RestTemplate тоже идут в виртуальном потоке запроса и не держат
+ * поток платформы на время ожидания ответа. Executors.newVirtualThreadPerTaskExecutor ищется во время выполнения,
+ * так как шлюз собирается под Java 11; на JDK без виртуальных потоков остаётся стандартный пул.
+ */
+@Slf4j
+@Component
+public class RequestThreads implements WebServerFactoryCustomizer<TomcatServletWebServerFactory> {
+
+    private final boolean virtualRequested;
+
+    public RequestThreads(@Value("${shareit.threads.mode:platform}") String mode) {
+        this.virtualRequested = "virtual".equalsIgnoreCase(mode);
+    }
+
+    @Override
+    public void customize(TomcatServletWebServerFactory factory) {
+        if (!virtualRequested) {
+            return;
+        }
+        Optional<ExecutorService> executor = virtualThreadExecutor();
+        if (executor.isEmpty()) {
+            log.warn("Виртуальные потоки недоступны в JDK {}, запросы обрабатывает стандартный пул Tomcat",
+                    Runtime.version());
+            return;
+        }
+        log.info("Запросы обрабатываются в виртуальных потоках");
+        factory.addProtocolHandlerCustomizers(
+                (TomcatProtocolHandlerCustomizer<?>) protocolHandler -> protocolHandler.setExecutor(executor.get()));
+    }
+
+    private static Optional<ExecutorService> virtualThreadExecutor() {
+        try {
+            Method factory = Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+            return Optional.of((ExecutorService) factory.invoke(null));
+        } catch (ReflectiveOperationException | RuntimeException e) {
+            return Optional.empty();
+        }
+    }
+}
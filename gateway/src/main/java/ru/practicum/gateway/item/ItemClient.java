@@ -3,54 +3,97 @@ package ru.practicum.gateway.item;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.web.client.RestTemplateBuilder;
 import org.springframework.http.ResponseEntity;
-import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
 import org.springframework.stereotype.Service;
 import org.springframework.web.util.DefaultUriBuilderFactory;
 import ru.practicum.gateway.client.BaseClient;
+import ru.practicum.gateway.client.NonBlockingServerClient;
+import ru.practicum.gateway.client.ResponseCache;
 import ru.practicum.gateway.item.dto.CommentDto;
 import ru.practicum.gateway.item.dto.ItemDto;
 
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 
 @Service
 public class ItemClient extends BaseClient {
 
     private static final String API_PREFIX = "/items";
 
-    public ItemClient(@Value("${shareit-server.url}") String serverUrl, RestTemplateBuilder builder) {
+    public ItemClient(@Value("${shareit-server.url}") String serverUrl,
+                      @Value("${shareit-server.streaming:true}") boolean streaming,
+                      RestTemplateBuilder builder, NonBlockingServerClient nonBlocking,
+                      ResponseCache cache) {
         super(
                 builder
                         .uriTemplateHandler(new DefaultUriBuilderFactory(serverUrl + API_PREFIX))
-                        .requestFactory(HttpComponentsClientHttpRequestFactory::new)
-                        .build()
+                        .build(),
+                streaming,
+                nonBlocking,
+                cache
         );
     }
 
-    public ResponseEntity<Object> create(ItemDto itemDto, long userId) {
+    public CompletableFuture<ResponseEntity<Object>> create(ItemDto itemDto, long userId) {
         return post("", userId, itemDto);
     }
 
-    public ResponseEntity<Object> getAll(long userId) {
+    public CompletableFuture<ResponseEntity<Object>> createBatch(List<ItemDto> dtos, long userId) {
+        return post("/batch", userId, dtos);
+    }
+
+    public CompletableFuture<ResponseEntity<Object>> getAll(long userId) {
         return get("", userId);
     }
 
-    public ResponseEntity<Object> getById(long itemId, long userId) {
+    public CompletableFuture<ResponseEntity<Object>> getById(long itemId, long userId) {
         return get("/" + itemId, userId);
     }
 
-    public ResponseEntity<Object> update(long itemId, long userId, Map<Object, Object> fields) {
+    public CompletableFuture<ResponseEntity<Object>> getComments(long itemId, int from, int size) {
+        Map<String, Object> parameters = Map.of(
+                "from", from,
+                "size", size);
+        return get("/" + itemId + "/comments?from={from}&size={size}", parameters);
+    }
+
+    public CompletableFuture<ResponseEntity<Object>> getAvailability(long itemId, LocalDateTime from,
+                                                                     LocalDateTime to) {
+        Map<String, Object> parameters = Map.of(
+                "from", from,
+                "to", to);
+        return get("/" + itemId + "/availability?from={from}&to={to}", parameters);
+    }
+
+    public CompletableFuture<ResponseEntity<Object>> update(long itemId, long userId, Map<Object, Object> fields) {
         return patch("/" + itemId, userId, fields);
     }
 
-    public ResponseEntity<Object> delete(long itemId) {
+    public CompletableFuture<ResponseEntity<Object>> delete(long itemId) {
         return delete("/" + itemId);
     }
 
-    public ResponseEntity<Object> search(String text) {
-        return get("/search?text=" + text);
+    public CompletableFuture<ResponseEntity<Object>> search(String text, LocalDateTime start, LocalDateTime end,
+                                                            int from, int size) {
+        if (start == null && end == null) {
+            Map<String, Object> parameters = Map.of(
+                    "text", text,
+                    "from", from,
+                    "size", size);
+            return get("/search?text={text}&from={from}&size={size}", parameters);
+        }
+        Map<String, Object> parameters = new HashMap<>();
+        parameters.put("text", text);
+        parameters.put("start", start);
+        parameters.put("end", end);
+        parameters.put("from", from);
+        parameters.put("size", size);
+        return get("/search?text={text}&start={start}&end={end}&from={from}&size={size}", parameters);
     }
 
-    public ResponseEntity<Object> createComment(long itemId, long userId, CommentDto commentDto) {
+    public CompletableFuture<ResponseEntity<Object>> createComment(long itemId, long userId, CommentDto commentDto) {
         return post("/" + itemId + "/comment", userId, commentDto);
     }
 
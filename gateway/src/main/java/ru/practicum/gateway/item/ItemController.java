@@ -2,6 +2,7 @@ package ru.practicum.gateway.item;
 
 import lombok.AllArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.BindingResult;
@@ -11,8 +12,14 @@ import ru.practicum.gateway.item.dto.CommentDto;
 import ru.practicum.gateway.item.dto.ItemDto;
 
 import javax.validation.Valid;
+import javax.validation.constraints.Max;
 import javax.validation.constraints.Positive;
+import javax.validation.constraints.PositiveOrZero;
+import javax.validation.constraints.Size;
+import java.time.LocalDateTime;
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 
 @RestController
 @RequestMapping("/items")
@@ -23,55 +30,91 @@ public class ItemController {
 
     private final ItemClient itemClient;
     private static final String REQUEST_HEADER = "X-Sharer-User-Id";
+    private static final int MAX_SEARCH_SIZE = 100;
+    private static final int MAX_COMMENTS_PAGE = 100;
+    private static final int MAX_BATCH_SIZE = 1000;
 
     @PostMapping
-    public ResponseEntity<Object> create(@RequestHeader(REQUEST_HEADER) Long userId,
-                                         @RequestBody @Valid ItemDto dto,
-                                         BindingResult result) {
+    public CompletableFuture<ResponseEntity<Object>> create(@RequestHeader(REQUEST_HEADER) Long userId,
+                                                            @RequestBody @Valid ItemDto dto,
+                                                            BindingResult result) {
         log.info("Получен запрос к эндпоинту /items create с headers {}", userId);
         return itemClient.create(dto, userId);
     }
 
+    @PostMapping("/batch")
+    public CompletableFuture<ResponseEntity<Object>> createBatch(@RequestHeader(REQUEST_HEADER) @Positive Long userId,
+                                                                 @RequestBody @Size(min = 1, max = MAX_BATCH_SIZE) List<ItemDto> dtos) {
+        log.info("Получен запрос к эндпоинту /items/batch createBatch с headers {}, строк {}", userId, dtos.size());
+        return itemClient.createBatch(dtos, userId);
+    }
+
     @GetMapping
-    public ResponseEntity<Object> getAll(@RequestHeader(REQUEST_HEADER) Long userId) {
+    public CompletableFuture<ResponseEntity<Object>> getAll(@RequestHeader(REQUEST_HEADER) Long userId) {
         log.info("Получен запрос к эндпоинту: /items getAll с headers {}", userId);
         return itemClient.getAll(userId);
     }
 
     @GetMapping("/{id}")
-    public ResponseEntity<Object> getById(@RequestHeader(REQUEST_HEADER) @Positive Long userId,
-                                          @PathVariable("id") @Positive Long itemId) {
+    public CompletableFuture<ResponseEntity<Object>> getById(@RequestHeader(REQUEST_HEADER) @Positive Long userId,
+                                                             @PathVariable("id") @Positive Long itemId) {
         log.info("Получен запрос к эндпоинту: /items geById с id={}", itemId);
         return itemClient.getById(itemId, userId);
     }
 
+    @GetMapping("/{id}/availability")
+    public CompletableFuture<ResponseEntity<Object>> getAvailability(@PathVariable("id") @Positive Long itemId,
+                                                                     @RequestParam("from") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+                                                                     LocalDateTime from,
+                                                                     @RequestParam("to") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+                                                                     LocalDateTime to) {
+        log.info("Получен запрос к эндпоинту: /items/{}/availability с from {}, to {}", itemId, from, to);
+        return itemClient.getAvailability(itemId, from, to);
+    }
+
+    @GetMapping("/{id}/comments")
+    public CompletableFuture<ResponseEntity<Object>> getComments(@PathVariable("id") @Positive Long itemId,
+                                                                 @RequestParam(name = "from", defaultValue = "0") @PositiveOrZero Integer from,
+                                                                 @RequestParam(name = "size", defaultValue = "10") @Positive
+                                                                 @Max(MAX_COMMENTS_PAGE) Integer size) {
+        log.info("Получен запрос к эндпоинту: /items/{}/comments с from {}, size {}", itemId, from, size);
+        return itemClient.getComments(itemId, from, size);
+    }
+
     @PatchMapping("/{id}")
-    public ResponseEntity<Object> update(@RequestHeader(REQUEST_HEADER) Long userId,
-                                         @PathVariable("id") Long itemId,
-                                         @RequestBody Map<Object, Object> fields,
-                                         BindingResult result) {
+    public CompletableFuture<ResponseEntity<Object>> update(@RequestHeader(REQUEST_HEADER) Long userId,
+                                                            @PathVariable("id") Long itemId,
+                                                            @RequestBody Map<Object, Object> fields,
+                                                            BindingResult result) {
         log.info("Получен запрос к эндпоинту: /items update с ItemId={} с headers {}", itemId, userId);
         return itemClient.update(itemId, userId, fields);
     }
 
     @DeleteMapping("/{id}")
-    public HttpStatus delete(@PathVariable("id") @Positive Long itemId) {
+    public CompletableFuture<HttpStatus> delete(@PathVariable("id") @Positive Long itemId) {
         log.info("Получен запрос к эндпоинту: /items delete с id={}", itemId);
-        itemClient.delete(itemId);
-        return HttpStatus.OK;
+        return itemClient.delete(itemId).thenApply(response -> HttpStatus.OK);
     }
 
     @GetMapping("/search")
-    public ResponseEntity<Object> search(@RequestParam("text") String text) {
-        log.info("Получен запрос к эндпоинту: items/search с text: {}", text);
-        return itemClient.search(text);
+    public CompletableFuture<ResponseEntity<Object>> search(@RequestParam("text") String text,
+                                                            @RequestParam(name = "start", required = false)
+                                                            @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime start,
+                                                            @RequestParam(name = "end", required = false)
+                                                            @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime end,
+                                                            @RequestParam(name = "from", defaultValue = "0") @PositiveOrZero Integer from,
+                                                            @RequestParam(name = "size", defaultValue = "10") @Positive
+                                                            @Max(MAX_SEARCH_SIZE) Integer size) {
+        log.info("Получен запрос к эндпоинту: items/search с text: {}, start {}, end {}, from {}, size {}",
+                text, start, end, from, size);
+        return itemClient.search(text, start, end, from, size);
     }
 
     @PostMapping("/{itemId}/comment")
-    public ResponseEntity<Object> addComment(@RequestHeader(REQUEST_HEADER) Long userId,
-                                             @PathVariable("itemId") @Positive Long itemId,
-                                             @Valid @RequestBody CommentDto comment,
-                                             BindingResult result) {
+    public CompletableFuture<ResponseEntity<Object>> addComment(@RequestHeader(REQUEST_HEADER) Long userId,
+                                                                @PathVariable("itemId") @Positive Long itemId,
+                                                                @Valid @RequestBody CommentDto comment,
+                                                                BindingResult result) {
         log.info("Получен запрос к эндпоинту /items{itemId}/comment addComment с headers {}, с itemId {}", userId, itemId);
         return itemClient.createComment(itemId, userId, comment);
     }
@@ -11,6 +11,7 @@ import ru.practicum.gateway.request.dto.ItemRequestDto;
 import javax.validation.Valid;
 import javax.validation.constraints.Positive;
 import javax.validation.constraints.PositiveOrZero;
+import java.util.concurrent.CompletableFuture;
 
 @RestController
 @RequestMapping(path = "/requests")
@@ -23,30 +24,30 @@ public class ItemRequestController {
     private static final String REQUEST_HEADER = "X-Sharer-User-Id";
 
     @PostMapping
-    public ResponseEntity<Object> create(@RequestHeader(REQUEST_HEADER) @Positive Long userId,
-                                         @Valid @RequestBody ItemRequestDto itemRequestDto,
-                                         BindingResult result) {
+    public CompletableFuture<ResponseEntity<Object>> create(@RequestHeader(REQUEST_HEADER) @Positive Long userId,
+                                                            @Valid @RequestBody ItemRequestDto itemRequestDto,
+                                                            BindingResult result) {
         log.info("Получен запрос к эндпоинту /requests create с headers {}", userId);
         return requestClient.create(userId, itemRequestDto);
     }
 
     @GetMapping
-    public ResponseEntity<Object> getForUser(@RequestHeader(REQUEST_HEADER) Long userId) {
+    public CompletableFuture<ResponseEntity<Object>> getForUser(@RequestHeader(REQUEST_HEADER) Long userId) {
         log.info("Получен запрос к эндпоинту /requests getForUser с headers {}", userId);
         return requestClient.getForUser(userId);
     }
 
     @GetMapping("/all")
-    public ResponseEntity<Object> getOtherUsers(@RequestHeader(REQUEST_HEADER) Long userId,
-                                                @RequestParam(name = "from", defaultValue = "0") @PositiveOrZero Integer from,
-                                                @RequestParam(name = "size", defaultValue = "10") @Positive Integer size) {
+    public CompletableFuture<ResponseEntity<Object>> getOtherUsers(@RequestHeader(REQUEST_HEADER) Long userId,
+                                                                   @RequestParam(name = "from", defaultValue = "0") @PositiveOrZero Integer from,
+                                                                   @RequestParam(name = "size", defaultValue = "10") @Positive Integer size) {
         log.info("Получен запрос к эндпоинту /requests getOtherUsers с headers {}, from{}, size{}", userId, from, size);
         return requestClient.getOtherUsers(userId, from, size);
     }
 
     @GetMapping("/{requestId}")
-    public ResponseEntity<Object> getRequestById(@RequestHeader(REQUEST_HEADER) Long userId,
-                                                 @PathVariable(name = "requestId") Long requestId) {
+    public CompletableFuture<ResponseEntity<Object>> getRequestById(@RequestHeader(REQUEST_HEADER) Long userId,
+                                                                    @PathVariable(name = "requestId") Long requestId) {
         log.info("Получен запрос к эндпоинту /requests getOtherUsers с headers {}, c requestId {}", userId, requestId);
         return requestClient.getRequestById(userId, requestId);
     }
@@ -3,45 +3,52 @@ package ru.practicum.gateway.user;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.web.client.RestTemplateBuilder;
 import org.springframework.http.ResponseEntity;
-import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
 import org.springframework.stereotype.Service;
 import org.springframework.web.util.DefaultUriBuilderFactory;
 import ru.practicum.gateway.client.BaseClient;
+import ru.practicum.gateway.client.NonBlockingServerClient;
+import ru.practicum.gateway.client.ResponseCache;
 import ru.practicum.gateway.user.dto.UserDto;
 
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 
 @Service
 public class UserClient extends BaseClient {
 
     private static final String API_PREFIX = "/users";
 
-    public UserClient(@Value("${shareit-server.url}") String serverUrl, RestTemplateBuilder builder) {
+    public UserClient(@Value("${shareit-server.url}") String serverUrl,
+                      @Value("${shareit-server.streaming:true}") boolean streaming,
+                      RestTemplateBuilder builder, NonBlockingServerClient nonBlocking,
+                      ResponseCache cache) {
         super(
                 builder
                         .uriTemplateHandler(new DefaultUriBuilderFactory(serverUrl + API_PREFIX))
-                        .requestFactory(HttpComponentsClientHttpRequestFactory::new)
-                        .build()
+                        .build(),
+                streaming,
+                nonBlocking,
+                cache
         );
     }
 
-    public ResponseEntity<Object> create(UserDto userDto) {
+    public CompletableFuture<ResponseEntity<Object>> create(UserDto userDto) {
         return post("", userDto);
     }
 
-    public ResponseEntity<Object> getAll() {
+    public CompletableFuture<ResponseEntity<Object>> getAll() {
         return get("");
     }
 
-    public ResponseEntity<Object> getById(long userId) {
+    public CompletableFuture<ResponseEntity<Object>> getById(long userId) {
         return get("/" + userId);
     }
 
-    public ResponseEntity<Object> update(long userId, Map<Object, Object> fields) {
+    public CompletableFuture<ResponseEntity<Object>> update(long userId, Map<Object, Object> fields) {
         return patch("/" + userId, fields);
     }
 
-    public ResponseEntity<Object> delete(long userId) {
+    public CompletableFuture<ResponseEntity<Object>> delete(long userId) {
         return delete("/" + userId);
     }
 
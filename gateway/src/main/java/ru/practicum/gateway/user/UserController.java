@@ -12,6 +12,7 @@ import ru.practicum.gateway.user.dto.UserDto;
 import javax.validation.Valid;
 import javax.validation.constraints.Positive;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 
 @RestController
 @RequestMapping(path = "/users")
@@ -23,36 +24,35 @@ public class UserController {
     private final UserClient userClient;
 
     @PostMapping
-    public ResponseEntity<Object> create(@Valid @RequestBody UserDto user, BindingResult result) {
+    public CompletableFuture<ResponseEntity<Object>> create(@Valid @RequestBody UserDto user, BindingResult result) {
         log.info("Получен запрос к эндпоинту /users create");
         return userClient.create(user);
     }
 
     @GetMapping
-    public ResponseEntity<Object> getAll() {
+    public CompletableFuture<ResponseEntity<Object>> getAll() {
         log.info("Получен запрос к эндпоинту: /users getAll");
         return userClient.getAll();
     }
 
     @GetMapping("/{id}")
-    public ResponseEntity<Object>  getById(@PathVariable("id") Long userId) {
+    public CompletableFuture<ResponseEntity<Object>> getById(@PathVariable("id") Long userId) {
         log.info("Получен запрос к эндпоинту: /users geById с id={}", userId);
         return userClient.getById(userId);
     }
 
     @PatchMapping("/{id}")
-    public ResponseEntity<Object> update(@PathVariable("id") Long userId,
-                                         @RequestBody Map<Object, Object> fields,
-                                         BindingResult result) {
+    public CompletableFuture<ResponseEntity<Object>> update(@PathVariable("id") Long userId,
+                                                            @RequestBody Map<Object, Object> fields,
+                                                            BindingResult result) {
         log.info("Получен запрос к эндпоинту: /users update с id={}", userId);
         return userClient.update(userId, fields);
     }
 
     @DeleteMapping("/{id}")
-    public HttpStatus delete(@PathVariable("id") @Positive Long userId) {
+    public CompletableFuture<HttpStatus> delete(@PathVariable("id") @Positive Long userId) {
         log.info("Получен запрос к эндпоинту: /users delete с id={}", userId);
-        userClient.delete(userId);
-        return HttpStatus.OK;
+        return userClient.delete(userId).thenApply(response -> HttpStatus.OK);
     }
 
 }
\ No newline at end of file
@@ -0,0 +1,116 @@
+package ru.practicum.gateway.client;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import ru.practicum.gateway.exceptions.GatewayOverloadedException;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class NonBlockingServerClientTest {
+
+    private final CountDownLatch release = new CountDownLatch(1);
+    private final CountDownLatch received = new CountDownLatch(1);
+    private HttpServer server;
+    private URI uri;
+
+    @BeforeEach
+    public void startServer() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        server.setExecutor(Executors.newCachedThreadPool());
+        server.createContext("/users", exchange -> {
+            received.countDown();
+            try {
+                release.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            byte[] body = "[{\"id\":1}]".getBytes(StandardCharsets.UTF_8);
+            exchange.getResponseHeaders().add("Content-Type", "application/json");
+            exchange.sendResponseHeaders(200, body.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(body);
+            }
+        });
+        server.start();
+        uri = URI.create("http://localhost:" + server.getAddress().getPort() + "/users");
+    }
+
+    @AfterEach
+    public void stopServer() {
+        release.countDown();
+        server.stop(0);
+    }
+
+    @Test
+    public void shouldQueueAboveMaxInFlightAndRejectAboveMaxQueued() throws Exception {
+        NonBlockingServerClient client = new NonBlockingServerClient(true, 1, 1, Duration.ofSeconds(1),
+                Duration.ofSeconds(5), new ObjectMapper());
+
+        CompletableFuture<ResponseEntity<Object>> first = client.exchange(HttpMethod.GET, uri, request());
+        CompletableFuture<ResponseEntity<Object>> second = client.exchange(HttpMethod.GET, uri, request());
+        assertThrows(GatewayOverloadedException.class, () -> client.exchange(HttpMethod.GET, uri, request()));
+
+        assertTrue(received.await(5, TimeUnit.SECONDS));
+        assertEquals(1, client.getInFlight());
+        assertEquals(1, client.getQueued());
+        assertEquals(1, client.getRejected());
+        assertFalse(first.isDone());
+
+        release.countDown();
+        ResponseEntity<Object> response = first.get(5, TimeUnit.SECONDS);
+        second.get(5, TimeUnit.SECONDS);
+
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals(MediaType.APPLICATION_JSON, response.getHeaders().getContentType());
+        assertEquals("[{\"id\":1}]", new String((byte[]) response.getBody(), StandardCharsets.UTF_8));
+        assertEquals(0, client.getInFlight());
+        assertEquals(0, client.getQueued());
+    }
+
+    @Test
+    public void shouldSendBodyAndSharerHeader() throws Exception {
+        server.createContext("/items", exchange -> {
+            String body = new String(exchange.getRequestBody().readAllBytes(), StandardCharsets.UTF_8);
+            int status = body.equals("{\"name\":\"Дрель\"}")
+                    && "1".equals(exchange.getRequestHeaders().getFirst("X-Sharer-User-Id")) ? 201 : 400;
+            exchange.sendResponseHeaders(status, -1);
+            exchange.close();
+        });
+        NonBlockingServerClient client = new NonBlockingServerClient(true, 10, 10, Duration.ofSeconds(1),
+                Duration.ofSeconds(5), new ObjectMapper());
+        HttpHeaders headers = new HttpHeaders();
+        headers.setContentType(MediaType.APPLICATION_JSON);
+        headers.set("X-Sharer-User-Id", "1");
+
+        ResponseEntity<Object> response = client.exchange(HttpMethod.POST, uri.resolve("/items"),
+                new HttpEntity<>(Map.of("name", "Дрель"), headers)).get(5, TimeUnit.SECONDS);
+
+        assertEquals(HttpStatus.CREATED, response.getStatusCode());
+        assertFalse(response.hasBody());
+    }
+
+    private HttpEntity<Object> request() {
+        return new HttpEntity<>(null, new HttpHeaders());
+    }
+}
@@ -0,0 +1,91 @@
+package ru.practicum.gateway.client;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ResponseCacheTest {
+
+    private static final URI ITEM = URI.create("http://localhost:9090/items/1");
+    private static final URI REQUESTS = URI.create("http://localhost:9090/requests/all?from=0&size=10");
+
+    private final List<String> sentEtags = new ArrayList<>();
+
+    @Test
+    public void shouldServeFreshEntryWithoutServerAndKeySeparatelyByUser() {
+        ResponseCache cache = new ResponseCache(true, 1024, Duration.ofMinutes(1));
+
+        cache.get(ITEM, 1L, etag -> ok("{\"id\":1}", "\"a\"")).join();
+        ResponseEntity<Object> cached = cache.get(ITEM, 1L, etag -> fail("запрос к серверу")).join();
+        cache.get(ITEM, 2L, etag -> ok("{\"id\":1}", "\"b\"")).join();
+
+        assertEquals("{\"id\":1}", new String((byte[]) cached.getBody(), StandardCharsets.UTF_8));
+        assertEquals("\"a\"", cached.getHeaders().getETag());
+        assertEquals(1, cache.getHits());
+        assertEquals(2, cache.getMisses());
+        assertEquals(2, cache.size());
+    }
+
+    @Test
+    public void shouldRevalidateStaleEntryByEtag() {
+        ResponseCache cache = new ResponseCache(true, 1024, Duration.ZERO);
+
+        cache.get(ITEM, 1L, etag -> ok("{\"id\":1}", "\"a\"")).join();
+        ResponseEntity<Object> revalidated = cache.get(ITEM, 1L, etag -> {
+            sentEtags.add(etag);
+            return CompletableFuture.completedFuture(ResponseEntity.status(HttpStatus.NOT_MODIFIED).build());
+        }).join();
+
+        assertEquals(List.of("\"a\""), sentEtags);
+        assertEquals(HttpStatus.OK, revalidated.getStatusCode());
+        assertEquals("{\"id\":1}", new String((byte[]) revalidated.getBody(), StandardCharsets.UTF_8));
+        assertEquals(1, cache.getRevalidated());
+        assertEquals(0.5, cache.getHitRatio());
+    }
+
+    @Test
+    public void shouldInvalidateAffectedEntriesOnWrite() {
+        ResponseCache cache = new ResponseCache(true, 1024, Duration.ofMinutes(1));
+        cache.get(ITEM, 1L, etag -> ok("{\"id\":1}", "\"a\"")).join();
+        cache.get(URI.create("http://localhost:9090/items/10"), 1L, etag -> ok("{\"id\":10}", "\"c\"")).join();
+        cache.get(REQUESTS, 1L, etag -> ok("[]", "\"r\"")).join();
+
+        cache.invalidate(URI.create("http://localhost:9090/items/1/comment"));
+
+        assertEquals(1, cache.size());
+        cache.invalidate(URI.create("http://localhost:9090/users/1"));
+        assertEquals(0, cache.size());
+        assertEquals(0, cache.getBytes());
+    }
+
+    @Test
+    public void shouldEvictLeastRecentlyReadEntriesAboveMaxBytes() {
+        ResponseCache cache = new ResponseCache(true, 20, Duration.ofMinutes(1));
+
+        cache.get(ITEM, 1L, etag -> ok("0123456789", "\"a\"")).join();
+        cache.get(ITEM, 2L, etag -> ok("0123456789", "\"b\"")).join();
+        cache.get(ITEM, 1L, etag -> fail("запрос к серверу")).join();
+        cache.get(ITEM, 3L, etag -> ok("0123456789", "\"c\"")).join();
+
+        assertEquals(2, cache.size());
+        assertEquals(20, cache.getBytes());
+        cache.get(ITEM, 1L, etag -> fail("запрос к серверу")).join();
+    }
+
+    private CompletableFuture<ResponseEntity<Object>> ok(String body, String etag) {
+        return CompletableFuture.completedFuture(ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_JSON)
+                .eTag(etag)
+                .body(body.getBytes(StandardCharsets.UTF_8)));
+    }
+}
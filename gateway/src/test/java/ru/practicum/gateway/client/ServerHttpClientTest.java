@@ -0,0 +1,46 @@
+package ru.practicum.gateway.client;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.web.client.RestTemplateBuilder;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.client.RestTemplate;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ServerHttpClientTest {
+
+    private final ServerHttpClient client = new ServerHttpClient(20, 10, Duration.ofSeconds(1),
+            Duration.ofSeconds(5), Duration.ofMillis(500), Duration.ofSeconds(30), Duration.ofSeconds(60));
+
+    @AfterEach
+    public void close() throws Exception {
+        client.destroy();
+    }
+
+    @Test
+    public void shouldShareOnePoolBetweenTemplates() {
+        RestTemplate users = new RestTemplateBuilder(client).build();
+        RestTemplate items = new RestTemplateBuilder(client).build();
+
+        assertEquals(1, users.getInterceptors().size());
+        assertEquals(1, items.getInterceptors().size());
+        assertSame(client.getRequestFactory(), ReflectionTestUtils.getField(users, "requestFactory"));
+        assertSame(client.getRequestFactory(), ReflectionTestUtils.getField(items, "requestFactory"));
+        assertEquals(20, client.getPoolStats().getMax());
+    }
+
+    @Test
+    public void shouldExposePoolMetrics() {
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        client.bindTo(registry);
+
+        assertEquals(20, registry.get("shareit.gateway.http.pool.max").gauge().value());
+        assertEquals(0, registry.get("shareit.gateway.http.pool.leased").gauge().value());
+        assertEquals(0, registry.get("shareit.gateway.http.in-flight").gauge().value());
+        assertEquals(0, registry.get("shareit.gateway.http.lease").timer().count());
+    }
+}
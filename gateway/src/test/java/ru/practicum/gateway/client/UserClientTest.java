@@ -1,4 +1,113 @@
 package ru.practicum.gateway.client;
 
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.web.client.RestTemplateBuilder;
+import org.springframework.core.io.InputStreamResource;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.test.web.client.MockRestServiceServer;
+import org.springframework.util.StreamUtils;
+import ru.practicum.gateway.user.UserClient;
+import ru.practicum.gateway.user.dto.UserDto;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.client.match.MockRestRequestMatchers.*;
+import static org.springframework.test.web.client.response.MockRestResponseCreators.*;
+
 public class UserClientTest {
+
+    private static final String USERS = "[{\"id\":1,\"name\":\"User\",\"email\":\"user@user.com\"}]";
+
+    @Test
+    public void shouldStreamServerResponseWithoutParsing() throws IOException {
+        UserClient client = new UserClient("http://localhost:9090", true, new RestTemplateBuilder(), null, null);
+        MockRestServiceServer server = MockRestServiceServer.bindTo(client.rest).build();
+        server.expect(requestTo("http://localhost:9090/users"))
+                .andExpect(method(HttpMethod.GET))
+                .andRespond(withSuccess(USERS, MediaType.APPLICATION_JSON));
+
+        ResponseEntity<Object> response = client.getAll().join();
+
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals(MediaType.APPLICATION_JSON, response.getHeaders().getContentType());
+        assertTrue(response.getBody() instanceof InputStreamResource);
+        try (InputStream body = ((InputStreamResource) response.getBody()).getInputStream()) {
+            assertEquals(USERS, StreamUtils.copyToString(body, StandardCharsets.UTF_8));
+        }
+        server.verify();
+    }
+
+    @Test
+    public void shouldStreamServerErrorAsIs() throws IOException {
+        UserClient client = new UserClient("http://localhost:9090", true, new RestTemplateBuilder(), null, null);
+        MockRestServiceServer server = MockRestServiceServer.bindTo(client.rest).build();
+        server.expect(requestTo("http://localhost:9090/users"))
+                .andExpect(method(HttpMethod.POST))
+                .andExpect(jsonPath("$.email").value("user@user.com"))
+                .andRespond(withStatus(HttpStatus.CONFLICT).contentType(MediaType.APPLICATION_JSON)
+                        .body("{\"error\":\"email\"}"));
+
+        ResponseEntity<Object> response = client.create(new UserDto(null, "User", "user@user.com")).join();
+
+        assertEquals(HttpStatus.CONFLICT, response.getStatusCode());
+        try (InputStream body = ((InputStreamResource) response.getBody()).getInputStream()) {
+            assertEquals("{\"error\":\"email\"}", StreamUtils.copyToString(body, StandardCharsets.UTF_8));
+        }
+    }
+
+    @Test
+    public void shouldKeepServerErrorHeadersOnCacheableGet() {
+        ResponseCache cache = new ResponseCache(true, 1024, Duration.ofSeconds(30));
+        HttpHeaders headers = new HttpHeaders();
+        headers.set("X-Request-Id", "42");
+        UserClient client = new UserClient("http://localhost:9090", true, new RestTemplateBuilder(), null, cache);
+        MockRestServiceServer server = MockRestServiceServer.bindTo(client.rest).build();
+        server.expect(requestTo("http://localhost:9090/users/5"))
+                .andRespond(withStatus(HttpStatus.NOT_FOUND).contentType(MediaType.APPLICATION_JSON)
+                        .headers(headers)
+                        .body("{\"error\":\"user\"}"));
+
+        ResponseEntity<Object> response = client.getById(5).join();
+
+        assertEquals(HttpStatus.NOT_FOUND, response.getStatusCode());
+        assertEquals(MediaType.APPLICATION_JSON, response.getHeaders().getContentType());
+        assertEquals("42", response.getHeaders().getFirst("X-Request-Id"));
+        assertEquals("{\"error\":\"user\"}", new String((byte[]) response.getBody(), StandardCharsets.UTF_8));
+        assertEquals(0, cache.size());
+    }
+
+    @Test
+    public void shouldKeepServerErrorHeadersWhenStreamingIsOff() {
+        UserClient client = new UserClient("http://localhost:9090", false, new RestTemplateBuilder(), null, null);
+        MockRestServiceServer server = MockRestServiceServer.bindTo(client.rest).build();
+        server.expect(requestTo("http://localhost:9090/users/5"))
+                .andRespond(withStatus(HttpStatus.NOT_FOUND).contentType(MediaType.APPLICATION_JSON)
+                        .body("{\"error\":\"user\"}"));
+
+        ResponseEntity<Object> response = client.getById(5).join();
+
+        assertEquals(HttpStatus.NOT_FOUND, response.getStatusCode());
+        assertEquals(MediaType.APPLICATION_JSON, response.getHeaders().getContentType());
+    }
+
+    @Test
+    public void shouldParseServerResponseWhenStreamingIsOff() {
+        UserClient client = new UserClient("http://localhost:9090", false, new RestTemplateBuilder(), null, null);
+        MockRestServiceServer server = MockRestServiceServer.bindTo(client.rest).build();
+        server.expect(requestTo("http://localhost:9090/users"))
+                .andRespond(withSuccess(USERS, MediaType.APPLICATION_JSON));
+
+        ResponseEntity<Object> response = client.getAll().join();
+
+        assertTrue(response.getBody() instanceof List);
+    }
 }
@@ -9,13 +9,19 @@ import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMock
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 import ru.practicum.gateway.item.ItemClient;
 import ru.practicum.gateway.item.ItemController;
 import ru.practicum.gateway.item.dto.ItemDto;
 
+import java.util.concurrent.CompletableFuture;
+
+import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultHandlers.print;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 @WebMvcTest(controllers = ItemController.class)
@@ -140,9 +146,13 @@ public class ItemControllerTest {
     @Test
     public void shouldDeleteItem() throws Exception {
         Long userId = 1L;
+        when(itemClient.delete(1L)).thenReturn(CompletableFuture.completedFuture(ResponseEntity.ok().build()));
 
-        mockMvc.perform(delete("/items/1")
+        MvcResult result = mockMvc.perform(delete("/items/1")
                         .header("X-Sharer-User-Id", userId))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        mockMvc.perform(asyncDispatch(result))
                 .andExpect(status().isOk());
     }
 
@@ -154,4 +164,25 @@ public class ItemControllerTest {
                         .header("X-Sharer-User-Id", userId))
                 .andExpect(status().isOk());
     }
+
+    @Test
+    public void shouldRejectEmptyBatch() throws Exception {
+        mockMvc.perform(post("/items/batch")
+                        .header("X-Sharer-User-Id", 1)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("[]"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    public void shouldSearchWithTooLargePage() throws Exception {
+        mockMvc.perform(get("/items/search?text=дрель&from=0&size=1000"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    public void shouldSearchWithNegativeFrom() throws Exception {
+        mockMvc.perform(get("/items/search?text=дрель&from=-1&size=10"))
+                .andExpect(status().isBadRequest());
+    }
 }
\ No newline at end of file
@@ -0,0 +1,360 @@
+package ru.practicum.server.booking;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import ru.practicum.server.exceptions.ItemIsNotAvailableForBookingException;
+
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Допуск новых бронирований без пересечений по времени.
+ * Для каждой вещи в памяти держится отсортированный по началу массив активных (WAITING/APPROVED) интервалов
+ * с префиксным максимумом окончаний, поэтому проверка пересечения [start, end) занимает O(log n).
+ * Интервалы вещи подгружаются из БД при первом обращении, запрос идёт вне блокировки. Допуски по одной вещи
+ * идут последовательно под блокировкой из набора полос, разные вещи в основном попадают в разные полосы
+ * и не ждут друг друга.
+ * Закончившиеся интервалы периодически убираются, вещи без интервалов выгружаются из памяти.
+ */
+@Component
+public class BookingAdmission {
+
+    private final BookingRepository bookingRepository;
+    private final ReentrantLock[] stripes;
+    private final Map<Long, ItemSlots> items = new ConcurrentHashMap<>();
+    /**
+     * Растёт при каждой выгрузке вещи: прочитанные до выгрузки интервалы могли устареть.
+     */
+    private final AtomicLong unloads = new AtomicLong();
+
+    public BookingAdmission(BookingRepository bookingRepository,
+                            @Value("${shareit.booking.lock-stripes:64}") int stripes) {
+        this.bookingRepository = bookingRepository;
+        int size = Integer.highestOneBit(Math.max(1, stripes - 1)) << 1;
+        this.stripes = new ReentrantLock[size];
+        for (int i = 0; i < size; i++) {
+            this.stripes[i] = new ReentrantLock();
+        }
+    }
+
+    /**
+     * Резервирует интервал за вещью или бросает исключение, если он пересекается с активным бронированием.
+     * При откате транзакции резерв снимается.
+     */
+    public Slot admit(Long itemId, LocalDateTime start, LocalDateTime end) {
+        Slot slot = new Slot(start, end);
+        ReentrantLock lock = lockFor(itemId);
+        ItemSlots slots = null;
+        while (slots == null) {
+            long stamp = unloads.get();
+            ItemSlots loaded = items.containsKey(itemId) ? null : load(itemId);
+            lock.lock();
+            try {
+                slots = items.get(itemId);
+                if (slots == null && loaded != null && unloads.get() == stamp) {
+                    slots = loaded;
+                    items.put(itemId, slots);
+                }
+                if (slots == null) {
+                    // вещь выгрузили, пока шёл запрос: прочитанное могло устареть, интервалы читаются заново
+                    continue;
+                }
+                if (slots.overlaps(start, end)) {
+                    throw new ItemIsNotAvailableForBookingException("Вещь уже забронирована на это время");
+                }
+                slots.add(slot);
+            } finally {
+                lock.unlock();
+            }
+        }
+        onRollback(() -> remove(itemId, slot));
+        return slot;
+    }
+
+    /**
+     * Освобождает интервал бронирования, например после отказа владельца.
+     * При откате транзакции интервал возвращается.
+     */
+    public void release(Booking booking) {
+        Long itemId = booking.getItem().getId();
+        ReentrantLock lock = lockFor(itemId);
+        Slot slot;
+        lock.lock();
+        try {
+            ItemSlots slots = items.get(itemId);
+            slot = slots == null ? null : slots.remove(booking.getId());
+        } finally {
+            lock.unlock();
+        }
+        if (slot != null) {
+            onRollback(() -> restore(itemId, slot));
+        }
+    }
+
+    /**
+     * Выгружает вещь после коммита, например когда она удалена вместе со своими бронированиями.
+     */
+    public void evict(Long itemId) {
+        afterCommit(() -> unload(itemId));
+    }
+
+    /**
+     * Снимает интервалы бронирований после коммита, например когда они удалены каскадом вместе с автором.
+     */
+    public void forget(Collection<BookingBounds> bookings) {
+        afterCommit(() -> bookings.forEach(booking -> {
+            ReentrantLock lock = lockFor(booking.getItemId());
+            lock.lock();
+            try {
+                ItemSlots slots = items.get(booking.getItemId());
+                if (slots != null) {
+                    slots.remove(booking.getId());
+                }
+            } finally {
+                lock.unlock();
+            }
+        }));
+    }
+
+    /**
+     * Убирает интервалы, закончившиеся к текущему моменту, и выгружает вещи, у которых не осталось интервалов.
+     * Новые бронирования начинаются не раньше текущего момента и с такими интервалами пересечься не могут.
+     */
+    @Scheduled(fixedDelayString = "${shareit.booking.admission-sweep:PT1M}")
+    public void sweep() {
+        LocalDateTime now = LocalDateTime.now();
+        for (Long itemId : items.keySet()) {
+            ReentrantLock lock = lockFor(itemId);
+            lock.lock();
+            try {
+                ItemSlots slots = items.get(itemId);
+                if (slots != null && slots.prune(now)) {
+                    unload(itemId);
+                }
+            } finally {
+                lock.unlock();
+            }
+        }
+    }
+
+    public int size() {
+        return items.size();
+    }
+
+    /**
+     * Читает активные незакончившиеся интервалы вещи, уже отсортированные по началу.
+     */
+    private ItemSlots load(Long itemId) {
+        List<BookingBounds> bookings = bookingRepository.findActiveBoundsByItemId(itemId, LocalDateTime.now());
+        Slot[] slots = new Slot[bookings.size()];
+        for (int i = 0; i < slots.length; i++) {
+            BookingBounds booking = bookings.get(i);
+            slots[i] = new Slot(booking.getStart(), booking.getEnd());
+            slots[i].bind(booking.getId());
+        }
+        return new ItemSlots(slots);
+    }
+
+    private void unload(Long itemId) {
+        unloads.incrementAndGet();
+        items.remove(itemId);
+    }
+
+    private void remove(Long itemId, Slot slot) {
+        ReentrantLock lock = lockFor(itemId);
+        lock.lock();
+        try {
+            ItemSlots slots = items.get(itemId);
+            if (slots != null) {
+                slots.remove(slot);
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void restore(Long itemId, Slot slot) {
+        ReentrantLock lock = lockFor(itemId);
+        lock.lock();
+        try {
+            ItemSlots slots = items.get(itemId);
+            // вещь могли выгрузить и загрузить заново, тогда интервал уже прочитан из БД
+            if (slots != null && !slots.contains(slot.bookingId)) {
+                slots.add(slot);
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private ReentrantLock lockFor(Long itemId) {
+        int hash = itemId.hashCode();
+        return stripes[(hash ^ (hash >>> 16)) & (stripes.length - 1)];
+    }
+
+    private void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+
+    private void onRollback(Runnable compensation) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                if (status == STATUS_ROLLED_BACK) {
+                    compensation.run();
+                }
+            }
+        });
+    }
+
+    /**
+     * Занятый интервал вещи. id бронирования становится известен после сохранения.
+     */
+    public static final class Slot {
+        private final LocalDateTime start;
+        private final LocalDateTime end;
+        private volatile Long bookingId;
+
+        private Slot(LocalDateTime start, LocalDateTime end) {
+            this.start = start;
+            this.end = end;
+        }
+
+        public void bind(Long bookingId) {
+            this.bookingId = bookingId;
+        }
+    }
+
+    private static final class ItemSlots {
+        private Slot[] slots;
+        private LocalDateTime[] maxEnd;
+
+        private ItemSlots(Slot[] slots) {
+            this.slots = slots;
+            this.maxEnd = new LocalDateTime[slots.length];
+            updateMaxEnd(0);
+        }
+
+        private boolean overlaps(LocalDateTime start, LocalDateTime end) {
+            int before = startingBefore(end);
+            return before > 0 && maxEnd[before - 1].isAfter(start);
+        }
+
+        private void add(Slot slot) {
+            int at = startingBefore(slot.start);
+            Slot[] grown = new Slot[slots.length + 1];
+            System.arraycopy(slots, 0, grown, 0, at);
+            grown[at] = slot;
+            System.arraycopy(slots, at, grown, at + 1, slots.length - at);
+            slots = grown;
+            maxEnd = Arrays.copyOf(maxEnd, slots.length);
+            updateMaxEnd(at);
+        }
+
+        private boolean contains(Long bookingId) {
+            return indexOf(bookingId) >= 0;
+        }
+
+        /**
+         * Убирает интервалы, закончившиеся к моменту now. Возвращает true, если интервалов не осталось.
+         */
+        private boolean prune(LocalDateTime now) {
+            int kept = 0;
+            for (Slot slot : slots) {
+                if (slot.end.isAfter(now)) {
+                    slots[kept++] = slot;
+                }
+            }
+            if (kept < slots.length) {
+                slots = Arrays.copyOf(slots, kept);
+                maxEnd = new LocalDateTime[kept];
+                updateMaxEnd(0);
+            }
+            return slots.length == 0;
+        }
+
+        private Slot remove(Long bookingId) {
+            int at = indexOf(bookingId);
+            if (at < 0) {
+                return null;
+            }
+            Slot slot = slots[at];
+            removeAt(at);
+            return slot;
+        }
+
+        private void remove(Slot slot) {
+            for (int i = startingBefore(slot.start); i < slots.length && slots[i].start.equals(slot.start); i++) {
+                if (slots[i] == slot) {
+                    removeAt(i);
+                    return;
+                }
+            }
+        }
+
+        /**
+         * Число интервалов, начинающихся раньше time, - позиция вставки по бинарному поиску.
+         */
+        private int startingBefore(LocalDateTime time) {
+            int low = 0;
+            int high = slots.length;
+            while (low < high) {
+                int mid = (low + high) >>> 1;
+                if (slots[mid].start.isBefore(time)) {
+                    low = mid + 1;
+                } else {
+                    high = mid;
+                }
+            }
+            return low;
+        }
+
+        private int indexOf(Long bookingId) {
+            for (int i = 0; i < slots.length; i++) {
+                if (bookingId.equals(slots[i].bookingId)) {
+                    return i;
+                }
+            }
+            return -1;
+        }
+
+        private void removeAt(int at) {
+            Slot[] shrunk = new Slot[slots.length - 1];
+            System.arraycopy(slots, 0, shrunk, 0, at);
+            System.arraycopy(slots, at + 1, shrunk, at, shrunk.length - at);
+            slots = shrunk;
+            maxEnd = Arrays.copyOf(maxEnd, slots.length);
+            updateMaxEnd(at);
+        }
+
+        /**
+         * Префиксный максимум окончаний меняется только начиная с позиции вставки или удаления.
+         */
+        private void updateMaxEnd(int from) {
+            for (int i = from; i < slots.length; i++) {
+                maxEnd[i] = i == 0 || slots[i].end.isAfter(maxEnd[i - 1]) ? slots[i].end : maxEnd[i - 1];
+            }
+        }
+    }
+}
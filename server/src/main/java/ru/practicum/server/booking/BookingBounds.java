@@ -0,0 +1,19 @@
+package ru.practicum.server.booking;
+
+import java.time.LocalDateTime;
+
+/**
+ * Границы бронирования без загрузки самой сущности и её связей.
+ */
+public interface BookingBounds {
+
+    Long getId();
+
+    Long getItemId();
+
+    Long getOwnerId();
+
+    LocalDateTime getStart();
+
+    LocalDateTime getEnd();
+}
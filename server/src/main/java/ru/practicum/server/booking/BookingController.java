@@ -2,11 +2,13 @@ package ru.practicum.server.booking;
 
 import lombok.AllArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.ResponseEntity;
 import org.springframework.validation.BindingResult;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
 import ru.practicum.server.booking.dto.BookingDto;
 import ru.practicum.server.booking.dto.BookingResponseDto;
+import ru.practicum.server.booking.dto.BookingSummaryDto;
 
 import java.util.List;
 
@@ -19,6 +21,7 @@ public class BookingController {
 
     private final BookingService bookingService;
     private static final String REQUEST_HEADER = "X-Sharer-User-Id";
+    private static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
 
     @PostMapping
     public BookingResponseDto addReservation(@RequestHeader(REQUEST_HEADER) Long userId,
@@ -45,20 +48,36 @@ public class BookingController {
     }
 
     @GetMapping
-    public List<BookingResponseDto> getAllReservation(@RequestHeader(REQUEST_HEADER) Long userId,
-                                                      @RequestParam(value = "state", defaultValue = "ALL") State state,
-                                                      @RequestParam(name = "from", defaultValue = "0") Integer from,
-                                                      @RequestParam(name = "size", defaultValue = "10") Integer size) throws Throwable {
+    public ResponseEntity<List<BookingResponseDto>> getAllReservation(@RequestHeader(REQUEST_HEADER) Long userId,
+                                                                      @RequestParam(value = "state", defaultValue = "ALL") State state,
+                                                                      @RequestParam(name = "from", defaultValue = "0") Integer from,
+                                                                      @RequestParam(name = "size", defaultValue = "10") Integer size,
+                                                                      @RequestParam(name = "cursor", required = false) String cursor) throws Throwable {
         log.info("Получен запрос к эндпоинту /bookings getAllReservation с state {}", state);
-        return bookingService.getAllReserve(userId, state, "booker", from, size);
+        return toResponse(bookingService.getAllReserve(userId, state, "booker", from, size, cursor));
     }
 
     @GetMapping("/owner")
-    public List<BookingResponseDto> getReservationForOwner(@RequestHeader(REQUEST_HEADER) Long userId,
-                                                           @RequestParam(value = "state", defaultValue = "ALL") State state,
-                                                           @RequestParam(name = "from", defaultValue = "0") Integer from,
-                                                           @RequestParam(name = "size", defaultValue = "10") Integer size) throws Throwable {
+    public ResponseEntity<List<BookingResponseDto>> getReservationForOwner(@RequestHeader(REQUEST_HEADER) Long userId,
+                                                                           @RequestParam(value = "state", defaultValue = "ALL") State state,
+                                                                           @RequestParam(name = "from", defaultValue = "0") Integer from,
+                                                                           @RequestParam(name = "size", defaultValue = "10") Integer size,
+                                                                           @RequestParam(name = "cursor", required = false) String cursor) throws Throwable {
         log.info("Получен запрос к эндпоинту /bookings getAllReservation с state {}", state);
-        return bookingService.getAllReserve(userId, state, "owner", from, size);
+        return toResponse(bookingService.getAllReserve(userId, state, "owner", from, size, cursor));
+    }
+
+    @GetMapping("/owner/summary")
+    public BookingSummaryDto getOwnerSummary(@RequestHeader(REQUEST_HEADER) Long userId) {
+        log.info("Получен запрос к эндпоинту /bookings/owner/summary getOwnerSummary с headers {}", userId);
+        return bookingService.getOwnerSummary(userId);
+    }
+
+    private ResponseEntity<List<BookingResponseDto>> toResponse(BookingPage page) {
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+        if (page.getNextCursor() != null) {
+            response.header(NEXT_CURSOR_HEADER, page.getNextCursor());
+        }
+        return response.body(page.getBookings());
     }
 }
\ No newline at end of file
@@ -0,0 +1,301 @@
+package ru.practicum.server.booking;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import ru.practicum.server.booking.dto.BookingSummaryDto;
+import ru.practicum.server.booking.transition.BookingTransitionEvent;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Счётчики бронирований вещей владельца по состояниям для GET /bookings/owner/summary.
+ * Счётчики владельца собираются агрегатным запросом при первом обращении, дальше меняются
+ * после коммита каждого создания и подтверждения/отклонения бронирования. Подтверждённые бронирования
+ * переходят из будущих в текущие и из текущих в завершённые по событиям {@link BookingTransitionEvent}.
+ * Каждое бронирование учитывается ровно в одном счётчике, ответ отдаётся без обращения к БД.
+ * Число владельцев в памяти ограничено, вытесняются те, к кому дольше всего не обращались.
+ */
+@Component
+public class BookingCounters {
+
+    private final BookingRepository bookingRepository;
+    private final int maxOwners;
+    private final Map<Long, Counts> owners;
+    /**
+     * Незавершённые подтверждённые бронирования владельцев из owners и счётчик, в котором они сейчас лежат.
+     */
+    private final Map<Long, Tracked> live = new HashMap<>();
+    private final AtomicLong generation = new AtomicLong();
+
+    public BookingCounters(BookingRepository bookingRepository,
+                           @Value("${shareit.booking.counters.max-owners:10000}") int maxOwners) {
+        this.bookingRepository = bookingRepository;
+        this.maxOwners = maxOwners;
+        this.owners = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Long, Counts> eldest) {
+                if (size() <= BookingCounters.this.maxOwners) {
+                    return false;
+                }
+                eldest.getValue().tracked.forEach(live::remove);
+                return true;
+            }
+        };
+    }
+
+    public BookingSummaryDto get(Long ownerId) {
+        Counts counts;
+        synchronized (this) {
+            counts = owners.get(ownerId);
+        }
+        if (counts == null) {
+            counts = load(ownerId);
+        }
+        return counts.toDto();
+    }
+
+    /**
+     * Учитывает создание (previous == null) или смену статуса бронирования после коммита транзакции.
+     */
+    public void changed(Long ownerId, Booking booking, Status previous) {
+        Change change = new Change(ownerId, booking.getId(), booking.getStart(), booking.getEnd(),
+                previous, booking.getStatus());
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    apply(change, LocalDateTime.now());
+                }
+            });
+        } else {
+            apply(change, LocalDateTime.now());
+        }
+    }
+
+    /**
+     * Сбрасывает счётчики владельцев сразу и после коммита, например когда их бронирования удалены каскадом в БД.
+     */
+    public void evict(Collection<Long> ownerIds) {
+        remove(ownerIds);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    remove(ownerIds);
+                }
+            });
+        }
+    }
+
+    /**
+     * Переносит бронирование в текущие или завершённые. Повторное или запоздавшее событие ничего не меняет.
+     */
+    @EventListener
+    public synchronized void onTransition(BookingTransitionEvent event) {
+        Tracked tracked = live.get(event.getBookingId());
+        if (tracked == null) {
+            return;
+        }
+        Bucket to = event.getKind() == BookingTransitionEvent.Kind.STARTED ? Bucket.CURRENT : Bucket.PAST;
+        if (tracked.bucket == to || tracked.bucket == Bucket.PAST) {
+            return;
+        }
+        move(tracked, event.getBookingId(), to);
+    }
+
+    public synchronized void clear() {
+        generation.incrementAndGet();
+        owners.clear();
+        live.clear();
+    }
+
+    public synchronized int tracked() {
+        return live.size();
+    }
+
+    public synchronized int size() {
+        return owners.size();
+    }
+
+    /**
+     * Если пока шёл запрос в БД изменилось бронирование владельца, которого ещё нет в памяти,
+     * посчитанные значения отдаются, но не сохраняются: изменение могло не попасть в выборку.
+     */
+    private Counts load(Long ownerId) {
+        long stamp = generation.get();
+        LocalDateTime now = LocalDateTime.now();
+        OwnerBookingCounts row = bookingRepository.countByOwnerId(ownerId, now);
+        Counts counts = new Counts(row);
+        List<BookingBounds> approved = bookingRepository.findApprovedBoundsByOwnerId(ownerId, now);
+        synchronized (this) {
+            if (generation.get() != stamp) {
+                return counts;
+            }
+            Counts existing = owners.get(ownerId);
+            if (existing != null) {
+                return existing;
+            }
+            owners.put(ownerId, counts);
+            for (BookingBounds bounds : approved) {
+                Bucket bucket = bucketAt(bounds.getStart(), bounds.getEnd(), now);
+                track(bounds.getId(), new Tracked(ownerId, bounds.getStart(), bounds.getEnd(), bucket));
+            }
+            // события о переходах, сработавшие пока шли запросы, были пропущены
+            LocalDateTime loadedAt = LocalDateTime.now();
+            for (BookingBounds bounds : approved) {
+                Tracked tracked = live.get(bounds.getId());
+                Bucket bucket = bucketAt(tracked.start, tracked.end, loadedAt);
+                if (bucket != tracked.bucket) {
+                    move(tracked, bounds.getId(), bucket);
+                }
+            }
+        }
+        return counts;
+    }
+
+    private synchronized void apply(Change change, LocalDateTime now) {
+        Counts counts = owners.get(change.ownerId);
+        if (counts == null) {
+            generation.incrementAndGet();
+            return;
+        }
+        Bucket from = null;
+        if (change.previous == Status.APPROVED) {
+            Tracked tracked = untrack(change.bookingId);
+            from = tracked == null ? Bucket.PAST : tracked.bucket;
+        } else if (change.previous != null) {
+            from = change.previous == Status.REJECTED ? Bucket.REJECTED : Bucket.WAITING;
+        }
+        Bucket to;
+        if (change.status == Status.APPROVED) {
+            to = bucketAt(change.start, change.end, now);
+            if (to != Bucket.PAST) {
+                track(change.bookingId, new Tracked(change.ownerId, change.start, change.end, to));
+            }
+        } else {
+            to = change.status == Status.REJECTED ? Bucket.REJECTED : Bucket.WAITING;
+        }
+        counts.move(from, to);
+    }
+
+    private void move(Tracked tracked, Long bookingId, Bucket to) {
+        Counts counts = owners.get(tracked.ownerId);
+        if (counts != null) {
+            counts.move(tracked.bucket, to);
+        }
+        if (to == Bucket.PAST) {
+            untrack(bookingId);
+        } else {
+            tracked.bucket = to;
+        }
+    }
+
+    private void track(Long bookingId, Tracked tracked) {
+        live.put(bookingId, tracked);
+        owners.get(tracked.ownerId).tracked.add(bookingId);
+    }
+
+    private Tracked untrack(Long bookingId) {
+        Tracked tracked = live.remove(bookingId);
+        if (tracked != null) {
+            Counts counts = owners.get(tracked.ownerId);
+            if (counts != null) {
+                counts.tracked.remove(bookingId);
+            }
+        }
+        return tracked;
+    }
+
+    private synchronized void remove(Collection<Long> ownerIds) {
+        generation.incrementAndGet();
+        for (Long ownerId : ownerIds) {
+            Counts counts = owners.remove(ownerId);
+            if (counts != null) {
+                counts.tracked.forEach(live::remove);
+            }
+        }
+    }
+
+    private static Bucket bucketAt(LocalDateTime start, LocalDateTime end, LocalDateTime now) {
+        if (start.isAfter(now)) {
+            return Bucket.UPCOMING;
+        }
+        return end.isAfter(now) ? Bucket.CURRENT : Bucket.PAST;
+    }
+
+    private enum Bucket {
+        WAITING, UPCOMING, CURRENT, PAST, REJECTED
+    }
+
+    private static final class Counts {
+        private final long[] values = new long[Bucket.values().length];
+        /**
+         * id бронирований владельца в live, чтобы при вытеснении владельца убрать и их.
+         */
+        private final Set<Long> tracked = new HashSet<>();
+
+        private Counts(OwnerBookingCounts row) {
+            values[Bucket.WAITING.ordinal()] = row.getWaiting();
+            values[Bucket.UPCOMING.ordinal()] = row.getUpcoming();
+            values[Bucket.CURRENT.ordinal()] = row.getCurrent();
+            values[Bucket.PAST.ordinal()] = row.getPast();
+            values[Bucket.REJECTED.ordinal()] = row.getRejected();
+        }
+
+        private synchronized void move(Bucket from, Bucket to) {
+            if (from != null) {
+                values[from.ordinal()]--;
+            }
+            values[to.ordinal()]++;
+        }
+
+        private synchronized BookingSummaryDto toDto() {
+            return new BookingSummaryDto(values[Bucket.WAITING.ordinal()], values[Bucket.UPCOMING.ordinal()],
+                    values[Bucket.CURRENT.ordinal()], values[Bucket.PAST.ordinal()], values[Bucket.REJECTED.ordinal()]);
+        }
+    }
+
+    private static final class Change {
+        private final Long ownerId;
+        private final Long bookingId;
+        private final LocalDateTime start;
+        private final LocalDateTime end;
+        private final Status previous;
+        private final Status status;
+
+        private Change(Long ownerId, Long bookingId, LocalDateTime start, LocalDateTime end,
+                       Status previous, Status status) {
+            this.ownerId = ownerId;
+            this.bookingId = bookingId;
+            this.start = start;
+            this.end = end;
+            this.previous = previous;
+            this.status = status;
+        }
+    }
+
+    private static final class Tracked {
+        private final Long ownerId;
+        private final LocalDateTime start;
+        private final LocalDateTime end;
+        private Bucket bucket;
+
+        private Tracked(Long ownerId, LocalDateTime start, LocalDateTime end, Bucket bucket) {
+            this.ownerId = ownerId;
+            this.start = start;
+            this.end = end;
+            this.bucket = bucket;
+        }
+    }
+}
@@ -0,0 +1,19 @@
+package ru.practicum.server.booking;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.time.LocalDateTime;
+
+/**
+ * Условия выборки бронирований пользователя: как арендатора или как владельца вещей, в заданном состоянии.
+ */
+@Getter
+@AllArgsConstructor
+public class BookingFilter {
+
+    private final Long userId;
+    private final boolean owner;
+    private final State state;
+    private final LocalDateTime now;
+}
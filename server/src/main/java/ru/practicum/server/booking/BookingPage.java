@@ -0,0 +1,18 @@
+package ru.practicum.server.booking;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import ru.practicum.server.booking.dto.BookingResponseDto;
+
+import java.util.List;
+
+/**
+ * Страница бронирований и курсор следующей страницы, null если страница последняя.
+ */
+@Getter
+@AllArgsConstructor
+public class BookingPage {
+
+    private final List<BookingResponseDto> bookings;
+    private final String nextCursor;
+}
@@ -3,76 +3,34 @@ package ru.practicum.server.booking;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 
 
-public interface BookingRepository extends JpaRepository<Booking, Long> {
+public interface BookingRepository extends JpaRepository<Booking, Long>, BookingSearchRepository {
 
+    /**
+     * Связи бронирования ленивые, вещь и автор нужны для ответа - подтягиваются тем же запросом.
+     */
     @Query("select b " +
             "from Booking as b " +
-            "JOIN b.item AS i " +
+            "JOIN FETCH b.item AS i " +
+            "JOIN FETCH b.booker " +
             "WHERE b.id = ?1 " +
             "AND i.owner.id = ?2")
     Booking findBookingOwner(Long bookingId, Long ownerId);
 
     @Query("select b " +
             "from Booking as b " +
-            "JOIN b.item AS i " +
+            "JOIN FETCH b.item AS i " +
+            "JOIN FETCH b.booker " +
             "WHERE b.id = ?1 " +
             "AND (i.owner.id = ?2 OR b.booker.id = ?2)")
     Booking findBookingOwnerOrBooker(Long bookingId, Long ownerId);
 
-    List<Booking> findAllByBookerIdOrderByStartDesc(Long bookerId, Pageable pageable);
-
-    List<Booking> findAllByBookerIdAndStartBeforeAndEndAfterOrderByStartDesc(Long bookerId, LocalDateTime time, LocalDateTime time2, Pageable pageable);
-
-    List<Booking> findAllByBookerIdAndStartAfterOrderByStartDesc(Long bookerId, LocalDateTime time, Pageable pageable);
-
-    List<Booking> findAllByBookerIdAndEndBeforeOrderByStartDesc(Long bookerId, LocalDateTime time, Pageable pageable);
-
-    List<Booking> findAllByBookerIdAndStatusOrderByStartDesc(Long bookerId, Status status, Pageable pageable);
-
-    @Query("SELECT b " +
-            "FROM Booking AS b " +
-            "JOIN b.item AS i " +
-            "WHERE i.owner.id = ?1 " +
-            "ORDER BY b.start DESC ")
-    List<Booking> findAllByOwnerIdOrderByStartDesc(Long bookerId, Pageable pageable);
-
-    @Query("SELECT b " +
-            "FROM Booking AS b " +
-            "JOIN b.item AS i " +
-            "WHERE i.owner.id = ?1 " +
-            "AND b.start < ?2 AND b.end > ?2 " +
-            "ORDER BY b.start DESC ")
-    List<Booking> findAllByOwnerIdAndStartBeforeAndEndAfterOrderByStartDesc(Long bookerId, LocalDateTime time, LocalDateTime time2, Pageable pageable);
-
-    @Query("SELECT b " +
-            "FROM Booking AS b " +
-            "JOIN b.item AS i " +
-            "WHERE i.owner.id = ?1 " +
-            "AND b.start > ?2 " +
-            "ORDER BY b.start DESC ")
-    List<Booking> findAllByOwnerIdAndStartAfterOrderByStartDesc(Long bookerId, LocalDateTime time, Pageable pageable);
-
-    @Query("SELECT b " +
-            "FROM Booking AS b " +
-            "JOIN b.item AS i " +
-            "WHERE i.owner.id = ?1 " +
-            "AND b.end < ?2 " +
-            "ORDER BY b.start DESC ")
-    List<Booking> findAllByOwnerIdAndEndBeforeOrderByStartDesc(Long bookerId, LocalDateTime time, Pageable pageable);
-
-    @Query("SELECT b " +
-            "FROM Booking AS b " +
-            "JOIN b.item AS i " +
-            "WHERE i.owner.id = ?1 " +
-            "AND b.status = ?2 " +
-            "ORDER BY b.start DESC ")
-    List<Booking> findAllByOwnerIdAndStatusOrderByStartDesc(Long bookerId, Status status, Pageable pageable);
-
     @Query("SELECT b " +
             "FROM Booking AS b " +
             "JOIN b.item AS i " +
@@ -81,12 +39,100 @@ public interface BookingRepository extends JpaRepository<Booking, Long> {
             "ORDER BY b.start DESC ")
     List<Booking> findAllByItemIdAndOwnerId(Long itemId, Long ownerId);
 
-    @Query("SELECT b " +
-            "FROM Booking AS b " +
-            "JOIN b.item AS i " +
-            "WHERE  i.owner.id = ?1 " +
-            "AND i.id IN (?2) ")
-    List<Booking> findAllByOwnerIdAndItemIn(Long ownerId, List<Long> items);
-
-    List<Booking> findAllByBookerIdAndItemIdAndStatusNotAndStartBefore(Long bookerId, Long itemId, Status status, LocalDateTime time);
+    /**
+     * Проверка без загрузки бронирований и их связей: выбирается id не больше чем одной строки.
+     */
+    boolean existsByBookerIdAndItemIdAndStatusNotAndStartBefore(Long bookerId, Long itemId, Status status,
+                                                                 LocalDateTime time);
+
+    @Query(value = "SELECT COALESCE(SUM(CASE WHEN b.status = 'WAITING' THEN 1 ELSE 0 END), 0) AS waiting, " +
+            "COALESCE(SUM(CASE WHEN b.status = 'APPROVED' AND b.start_date > :now THEN 1 ELSE 0 END), 0) AS upcoming, " +
+            "COALESCE(SUM(CASE WHEN b.status = 'APPROVED' AND b.start_date <= :now AND b.end_date > :now " +
+            "THEN 1 ELSE 0 END), 0) AS \"current\", " +
+            "COALESCE(SUM(CASE WHEN b.status = 'APPROVED' AND b.end_date <= :now THEN 1 ELSE 0 END), 0) AS past, " +
+            "COALESCE(SUM(CASE WHEN b.status = 'REJECTED' THEN 1 ELSE 0 END), 0) AS rejected " +
+            "FROM bookings AS b " +
+            "JOIN items AS i ON i.item_id = b.item_id " +
+            "WHERE i.user_id = :ownerId",
+            nativeQuery = true)
+    OwnerBookingCounts countByOwnerId(@Param("ownerId") Long ownerId, @Param("now") LocalDateTime now);
+
+    /**
+     * Подтверждённые бронирования владельца, которые ещё не закончились к моменту now.
+     */
+    @Query(value = "SELECT b.booking_id AS id, b.item_id AS itemId, i.user_id AS ownerId, " +
+            "b.start_date AS start, b.end_date AS \"end\" " +
+            "FROM bookings AS b " +
+            "JOIN items AS i ON i.item_id = b.item_id " +
+            "WHERE i.user_id = :ownerId " +
+            "AND b.status = 'APPROVED' " +
+            "AND b.end_date > :now",
+            nativeQuery = true)
+    List<BookingBounds> findApprovedBoundsByOwnerId(@Param("ownerId") Long ownerId, @Param("now") LocalDateTime now);
+
+    /**
+     * Все бронирования автора с владельцами вещей.
+     */
+    @Query(value = "SELECT b.booking_id AS id, b.item_id AS itemId, i.user_id AS ownerId, " +
+            "b.start_date AS start, b.end_date AS \"end\" " +
+            "FROM bookings AS b " +
+            "JOIN items AS i ON i.item_id = b.item_id " +
+            "WHERE b.booker_id = :bookerId",
+            nativeQuery = true)
+    List<BookingBounds> findBoundsByBookerId(@Param("bookerId") Long bookerId);
+
+    /**
+     * Подтверждённые бронирования, которые начнутся в интервале [from, to), по времени начала.
+     */
+    @Query(value = "SELECT b.booking_id AS id, b.item_id AS itemId, i.user_id AS ownerId, " +
+            "b.start_date AS start, b.end_date AS \"end\" " +
+            "FROM bookings AS b " +
+            "JOIN items AS i ON i.item_id = b.item_id " +
+            "WHERE b.status = 'APPROVED' " +
+            "AND b.start_date >= :from AND b.start_date < :to " +
+            "ORDER BY b.start_date, b.booking_id",
+            nativeQuery = true)
+    List<BookingBounds> findApprovedStartingBetween(@Param("from") LocalDateTime from, @Param("to") LocalDateTime to,
+                                                    Pageable pageable);
+
+    /**
+     * Подтверждённые бронирования, которые закончатся в интервале [from, to), по времени окончания.
+     */
+    @Query(value = "SELECT b.booking_id AS id, b.item_id AS itemId, i.user_id AS ownerId, " +
+            "b.start_date AS start, b.end_date AS \"end\" " +
+            "FROM bookings AS b " +
+            "JOIN items AS i ON i.item_id = b.item_id " +
+            "WHERE b.status = 'APPROVED' " +
+            "AND b.end_date >= :from AND b.end_date < :to " +
+            "ORDER BY b.end_date, b.booking_id",
+            nativeQuery = true)
+    List<BookingBounds> findApprovedEndingBetween(@Param("from") LocalDateTime from, @Param("to") LocalDateTime to,
+                                                  Pageable pageable);
+
+    /**
+     * Активные (WAITING/APPROVED) бронирования вещи, которые заканчиваются после since, по времени начала.
+     */
+    @Query(value = "SELECT b.booking_id AS id, b.item_id AS itemId, i.user_id AS ownerId, " +
+            "b.start_date AS start, b.end_date AS \"end\" " +
+            "FROM bookings AS b " +
+            "JOIN items AS i ON i.item_id = b.item_id " +
+            "WHERE b.item_id = :itemId " +
+            "AND b.status IN ('WAITING', 'APPROVED') " +
+            "AND b.end_date > :since " +
+            "ORDER BY b.start_date, b.booking_id",
+            nativeQuery = true)
+    List<BookingBounds> findActiveBoundsByItemId(@Param("itemId") Long itemId, @Param("since") LocalDateTime since);
+
+    /**
+     * Вещи из itemIds, у которых есть активное бронирование, пересекающее окно [start, end).
+     */
+    @Query(value = "SELECT DISTINCT b.item_id " +
+            "FROM bookings AS b " +
+            "WHERE b.item_id IN (:itemIds) " +
+            "AND b.status IN ('WAITING', 'APPROVED') " +
+            "AND b.start_date < :end " +
+            "AND b.end_date > :start",
+            nativeQuery = true)
+    List<Long> findBusyItemIds(@Param("itemIds") Collection<Long> itemIds, @Param("start") LocalDateTime start,
+                               @Param("end") LocalDateTime end);
 }
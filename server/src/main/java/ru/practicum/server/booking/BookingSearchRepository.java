@@ -0,0 +1,14 @@
+package ru.practicum.server.booking;
+
+import org.springframework.lang.Nullable;
+
+import java.util.List;
+
+public interface BookingSearchRepository {
+
+    /**
+     * Бронирования по фильтру в порядке (start, id) по убыванию.
+     * С курсором выдача начинается сразу после него и offset не используется.
+     */
+    List<Booking> findPage(BookingFilter filter, @Nullable BookingCursor after, int offset, int limit);
+}
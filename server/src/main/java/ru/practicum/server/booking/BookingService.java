@@ -1,20 +1,25 @@
 package ru.practicum.server.booking;
 
 import lombok.AllArgsConstructor;
-import org.springframework.data.domain.PageRequest;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.validation.annotation.Validated;
 import ru.practicum.server.booking.dto.BookingDto;
 import ru.practicum.server.booking.dto.BookingResponseDto;
+import ru.practicum.server.booking.dto.BookingSummaryDto;
+import ru.practicum.server.booking.transition.BookingTransitionScheduler;
 import ru.practicum.server.exceptions.ItemIsNotAvailableForBookingException;
 import ru.practicum.server.exceptions.ValidationIdException;
 import ru.practicum.server.item.Item;
+import ru.practicum.server.item.ItemAvailabilityCache;
+import ru.practicum.server.item.ItemDetailCache;
 import ru.practicum.server.item.ItemRepository;
 import ru.practicum.server.user.User;
 import ru.practicum.server.user.UserMapper;
 import ru.practicum.server.user.UserService;
 
+import java.sql.SQLException;
 import java.time.LocalDateTime;
 import java.util.List;
 import java.util.stream.Collectors;
@@ -24,10 +29,19 @@ import java.util.stream.Collectors;
 @Transactional(readOnly = true)
 @Validated
 public class BookingService {
+    /**
+     * SQLState нарушения EXCLUDE-ограничения bookings_item_during_excl в PostgreSQL.
+     */
+    private static final String EXCLUSION_VIOLATION = "23P01";
 
     private final BookingRepository bookingRepository;
     private final UserService userService;
     private final ItemRepository itemRepository;
+    private final ItemDetailCache itemDetailCache;
+    private final ItemAvailabilityCache itemAvailabilityCache;
+    private final BookingAdmission bookingAdmission;
+    private final BookingCounters bookingCounters;
+    private final BookingTransitionScheduler transitionScheduler;
 
     @Transactional
     public BookingResponseDto create(BookingDto dto, Long bookerId) {
@@ -45,9 +59,15 @@ public class BookingService {
         }
 
         User booker = UserMapper.toUser(userService.getById(bookerId));
+        BookingAdmission.Slot slot = bookingAdmission.admit(item.getId(), dto.getStart(), dto.getEnd());
         Booking booking = BookingMapper.toBooking(dto, item, booker);
+        Booking newBooking = saveExclusive(booking);
+        slot.bind(newBooking.getId());
+        itemDetailCache.evict(item.getId());
+        itemAvailabilityCache.evict(item.getId());
+        bookingCounters.changed(item.getOwner().getId(), newBooking, null);
 
-        return BookingMapper.toBookingDto(bookingRepository.save(booking));
+        return BookingMapper.toBookingDto(newBooking);
     }
 
     @Transactional
@@ -58,16 +78,27 @@ public class BookingService {
             throw new ValidationIdException("Booking не найден");
         }
 
+        Status previous = booking.getStatus();
         if (approved) {
             if (booking.getStatus().equals(Status.APPROVED)) {
                 throw new ItemIsNotAvailableForBookingException("Статус APPROVED уже установлен");
             }
+            if (booking.getStatus().equals(Status.REJECTED)) {
+                bookingAdmission.admit(booking.getItem().getId(), booking.getStart(), booking.getEnd())
+                        .bind(booking.getId());
+            }
             booking.setStatus(Status.APPROVED);
         } else {
+            bookingAdmission.release(booking);
             booking.setStatus(Status.REJECTED);
         }
+        Booking newBooking = saveExclusive(booking);
+        itemDetailCache.evict(booking.getItem().getId());
+        itemAvailabilityCache.evict(booking.getItem().getId());
+        bookingCounters.changed(booking.getItem().getOwner().getId(), newBooking, previous);
+        transitionScheduler.changed(booking.getItem().getOwner().getId(), newBooking);
 
-        return BookingMapper.toBookingDto(bookingRepository.save(booking));
+        return BookingMapper.toBookingDto(newBooking);
     }
 
     public BookingResponseDto getById(Long userId, Long bookingId) {
@@ -78,65 +109,56 @@ public class BookingService {
         return BookingMapper.toBookingDto(booking);
     }
 
+    public BookingSummaryDto getOwnerSummary(Long userId) {
+        userService.checkExists(userId);
+        return bookingCounters.get(userId);
+    }
+
     public List<BookingResponseDto> getAllReserve(Long userId, State state, String typeUser, int from, int size) throws Throwable {
-        PageRequest page = PageRequest.of(from > 0 ? from / size : 0, size);
-
-        List<Booking> list;
-        LocalDateTime time = LocalDateTime.now();
-        boolean isOwner = typeUser.equals("owner");
-
-        switch (state) {
-            case ALL:
-                if (isOwner) {
-                    list = bookingRepository.findAllByOwnerIdOrderByStartDesc(userId, page);
-                } else {
-                    list = bookingRepository.findAllByBookerIdOrderByStartDesc(userId, page);
-                }
-                break;
-            case FUTURE:
-                if (isOwner) {
-                    list = bookingRepository.findAllByOwnerIdAndStartAfterOrderByStartDesc(userId, time, page);
-                } else {
-                    list = bookingRepository.findAllByBookerIdAndStartAfterOrderByStartDesc(userId, time, page);
-                }
-                break;
-            case WAITING:
-                if (isOwner) {
-                    list = bookingRepository.findAllByOwnerIdAndStatusOrderByStartDesc(userId, Status.WAITING, page);
-                } else {
-                    list = bookingRepository.findAllByBookerIdAndStatusOrderByStartDesc(userId, Status.WAITING, page);
-                }
-                break;
-            case CURRENT:
-                if (isOwner) {
-                    list = bookingRepository.findAllByOwnerIdAndStartBeforeAndEndAfterOrderByStartDesc(userId, time, time, page);
-                } else {
-                    list = bookingRepository.findAllByBookerIdAndStartBeforeAndEndAfterOrderByStartDesc(userId, time, time, page);
-                }
-                break;
-            case PAST:
-                if (isOwner) {
-                    list = bookingRepository.findAllByOwnerIdAndEndBeforeOrderByStartDesc(userId, time, page);
-                } else {
-                    list = bookingRepository.findAllByBookerIdAndEndBeforeOrderByStartDesc(userId, time, page);
-                }
-                break;
-            case REJECTED:
-                if (isOwner) {
-                    list = bookingRepository.findAllByOwnerIdAndStatusOrderByStartDesc(userId, Status.REJECTED, page);
-                } else {
-                    list = bookingRepository.findAllByBookerIdAndStatusOrderByStartDesc(userId, Status.REJECTED, page);
-                }
-                break;
-            default:
-                throw new Throwable("UNSUPPORTED_STATUS");
+        return getAllReserve(userId, state, typeUser, from, size, null).getBookings();
+    }
+
+    /**
+     * Без курсора страница выбирается по from/size как раньше, с курсором - сразу после него,
+     * и стоимость запроса не зависит от глубины страницы.
+     */
+    public BookingPage getAllReserve(Long userId, State state, String typeUser, int from, int size,
+                                     String cursor) throws Throwable {
+        if (state == null) {
+            throw new Throwable("UNSUPPORTED_STATUS");
         }
+        BookingFilter filter = new BookingFilter(userId, typeUser.equals("owner"), state, LocalDateTime.now());
+        BookingCursor after = cursor == null ? null : BookingCursor.decode(cursor);
+        int offset = from > 0 ? from / size * size : 0;
+
+        List<Booking> list = bookingRepository.findPage(filter, after, offset, size + 1);
 
         if (list.isEmpty()) {
             throw new ValidationIdException("Бронирование не найдено");
         }
 
-        return list.stream().map(BookingMapper::toBookingDto).collect(Collectors.toList());
+        String nextCursor = null;
+        if (list.size() > size) {
+            list = list.subList(0, size);
+            nextCursor = BookingCursor.of(list.get(size - 1)).encode();
+        }
+        return new BookingPage(list.stream().map(BookingMapper::toBookingDto).collect(Collectors.toList()), nextCursor);
     }
 
+    /**
+     * Сохраняет бронирование сразу, чтобы пересечение, найденное ограничением в БД (например, бронированием
+     * с другого узла), пришло как ошибка бронирования, а не как конфликт при коммите.
+     */
+    private Booking saveExclusive(Booking booking) {
+        try {
+            return bookingRepository.saveAndFlush(booking);
+        } catch (DataIntegrityViolationException e) {
+            for (Throwable cause = e; cause != null; cause = cause.getCause()) {
+                if (cause instanceof SQLException && EXCLUSION_VIOLATION.equals(((SQLException) cause).getSQLState())) {
+                    throw new ItemIsNotAvailableForBookingException("Вещь уже забронирована на это время");
+                }
+            }
+            throw e;
+        }
+    }
 }
\ No newline at end of file
@@ -0,0 +1,86 @@
+package ru.practicum.server.booking;
+
+import java.time.LocalDateTime;
+import java.util.*;
+
+/**
+ * Подтверждённые бронирования, сгруппированные по вещам и отсортированные по началу.
+ * Строится один раз на набор бронирований, после чего последнее и следующее бронирование
+ * любой вещи находится бинарным поиском, без фильтрации и сортировки всего списка на каждую вещь.
+ */
+public class BookingTimeline {
+
+    private static final BookingTimeline EMPTY = new BookingTimeline(Collections.emptyMap());
+    private static final Comparator<Booking> BY_START = Comparator.comparing(Booking::getStart)
+            .thenComparing(Booking::getId, Comparator.nullsFirst(Comparator.naturalOrder()));
+
+    private final Map<Long, Booking[]> byItem;
+
+    private BookingTimeline(Map<Long, Booking[]> byItem) {
+        this.byItem = byItem;
+    }
+
+    public static BookingTimeline empty() {
+        return EMPTY;
+    }
+
+    public static BookingTimeline of(Collection<Booking> bookings) {
+        if (bookings.isEmpty()) {
+            return EMPTY;
+        }
+        Map<Long, List<Booking>> grouped = new HashMap<>();
+        for (Booking booking : bookings) {
+            if (booking.getStatus() == Status.APPROVED) {
+                grouped.computeIfAbsent(booking.getItem().getId(), id -> new ArrayList<>()).add(booking);
+            }
+        }
+        Map<Long, Booking[]> byItem = new HashMap<>(grouped.size() * 2);
+        grouped.forEach((itemId, list) -> {
+            Booking[] sorted = list.toArray(new Booking[0]);
+            Arrays.sort(sorted, BY_START);
+            byItem.put(itemId, sorted);
+        });
+        return new BookingTimeline(byItem);
+    }
+
+    /**
+     * Последнее начавшееся к моменту time бронирование (текущее или завершённое).
+     */
+    public Optional<Booking> last(Long itemId, LocalDateTime time) {
+        Booking[] bookings = byItem.get(itemId);
+        if (bookings == null) {
+            return Optional.empty();
+        }
+        int index = firstStartingNotBefore(bookings, time) - 1;
+        return index >= 0 ? Optional.of(bookings[index]) : Optional.empty();
+    }
+
+    /**
+     * Ближайшее бронирование, которое начнётся после момента time.
+     */
+    public Optional<Booking> next(Long itemId, LocalDateTime time) {
+        Booking[] bookings = byItem.get(itemId);
+        if (bookings == null) {
+            return Optional.empty();
+        }
+        int index = firstStartingNotBefore(bookings, time);
+        while (index < bookings.length && !bookings[index].getStart().isAfter(time)) {
+            index++;
+        }
+        return index < bookings.length ? Optional.of(bookings[index]) : Optional.empty();
+    }
+
+    private static int firstStartingNotBefore(Booking[] bookings, LocalDateTime time) {
+        int low = 0;
+        int high = bookings.length;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (bookings[mid].getStart().isBefore(time)) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+}
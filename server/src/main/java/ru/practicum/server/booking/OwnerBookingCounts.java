@@ -0,0 +1,17 @@
+package ru.practicum.server.booking;
+
+/**
+ * Бронирования вещей владельца, посчитанные в БД одним агрегатным запросом.
+ */
+public interface OwnerBookingCounts {
+
+    Long getWaiting();
+
+    Long getUpcoming();
+
+    Long getCurrent();
+
+    Long getPast();
+
+    Long getRejected();
+}
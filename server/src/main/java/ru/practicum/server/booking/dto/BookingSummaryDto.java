@@ -0,0 +1,23 @@
+package ru.practicum.server.booking.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Число бронирований вещей владельца по состояниям.
+ * waiting и rejected считаются по статусу, upcoming/current/past - среди подтверждённых, по времени.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class BookingSummaryDto {
+
+    private long waiting;
+    private long upcoming;
+    private long current;
+    private long past;
+    private long rejected;
+}
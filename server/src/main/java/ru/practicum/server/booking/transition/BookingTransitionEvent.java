@@ -0,0 +1,27 @@
+package ru.practicum.server.booking.transition;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.ToString;
+
+import java.time.LocalDateTime;
+
+/**
+ * Подтверждённое бронирование началось или закончилось.
+ * Публикуется {@link BookingTransitionScheduler} в момент наступления start/end с точностью до тика.
+ */
+@Getter
+@ToString
+@AllArgsConstructor
+public class BookingTransitionEvent {
+
+    private final Long bookingId;
+    private final Long itemId;
+    private final Long ownerId;
+    private final Kind kind;
+    private final LocalDateTime at;
+
+    public enum Kind {
+        STARTED, ENDED
+    }
+}
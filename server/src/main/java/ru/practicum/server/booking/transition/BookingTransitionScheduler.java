@@ -0,0 +1,274 @@
+package ru.practicum.server.booking.transition;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import ru.practicum.server.booking.Booking;
+import ru.practicum.server.booking.BookingBounds;
+import ru.practicum.server.booking.BookingRepository;
+import ru.practicum.server.booking.Status;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Публикует {@link BookingTransitionEvent} в моменты начала и окончания подтверждённых бронирований.
+ * В колесе таймеров держатся только переходы ближайшего окна (shareit.booking.transitions.horizon)
+ * и не больше max-entries записей, остальные подгружаются из БД по мере продвижения окна.
+ * Поэтому память ограничена независимо от числа бронирований, а после рестарта окно
+ * просто заново читается из БД. Переходы, пропущенные пока сервер не работал, не публикуются.
+ */
+@Slf4j
+@Component
+public class BookingTransitionScheduler implements SmartInitializingSingleton {
+
+    private final BookingRepository bookingRepository;
+    private final ApplicationEventPublisher publisher;
+    private final Clock clock;
+    private final long horizon;
+    private final int maxEntries;
+    private final TimingWheel<Key, BookingTransitionEvent> wheel;
+    /**
+     * Все переходы раньше этого момента уже лежат в колесе или сработали.
+     */
+    private long loadedUntil;
+    /**
+     * Пока refill читает БД: бронирования, изменённые за это время, и их переходы (пустой список - переходы сняты).
+     * Выборка могла их не увидеть или увидеть в прежнем состоянии, поэтому при слиянии берётся эта версия.
+     */
+    private Map<Long, List<BookingTransitionEvent>> changedDuringRefill;
+
+    @Autowired
+    public BookingTransitionScheduler(BookingRepository bookingRepository,
+                                      ApplicationEventPublisher publisher,
+                                      @Value("${shareit.booking.transitions.tick:PT1S}") Duration tick,
+                                      @Value("${shareit.booking.transitions.wheel-size:64}") int wheelSize,
+                                      @Value("${shareit.booking.transitions.horizon:PT6H}") Duration horizon,
+                                      @Value("${shareit.booking.transitions.max-entries:100000}") int maxEntries) {
+        this(bookingRepository, publisher, Clock.systemDefaultZone(), tick, wheelSize, horizon, maxEntries);
+    }
+
+    public BookingTransitionScheduler(BookingRepository bookingRepository, ApplicationEventPublisher publisher,
+                                      Clock clock, Duration tick, int wheelSize, Duration horizon, int maxEntries) {
+        this.bookingRepository = bookingRepository;
+        this.publisher = publisher;
+        this.clock = clock;
+        this.horizon = horizon.toMillis();
+        this.maxEntries = maxEntries;
+        this.loadedUntil = clock.millis();
+        this.wheel = new TimingWheel<>(tick.toMillis(), wheelSize, loadedUntil);
+    }
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        refill(clock.millis());
+        log.info("Колесо переходов бронирований загружено: {} переходов до {}", size(), toDateTime(loadedUntil));
+    }
+
+    @Scheduled(fixedDelayString = "${shareit.booking.transitions.tick:PT1S}")
+    public void tick() {
+        long now = clock.millis();
+        List<BookingTransitionEvent> due;
+        boolean windowShort;
+        synchronized (this) {
+            due = wheel.advance(now);
+            windowShort = loadedUntil - now < horizon / 2;
+        }
+        due.forEach(publisher::publishEvent);
+        if (windowShort) {
+            refill(now);
+        }
+    }
+
+    /**
+     * Планирует или снимает переходы бронирования после коммита, в зависимости от его статуса.
+     */
+    public void changed(Long ownerId, Booking booking) {
+        Long itemId = booking.getItem().getId();
+        Long bookingId = booking.getId();
+        LocalDateTime start = booking.getStart();
+        LocalDateTime end = booking.getEnd();
+        boolean approved = booking.getStatus() == Status.APPROVED;
+        Runnable change = () -> {
+            if (approved) {
+                schedule(bookingId, itemId, ownerId, start, end);
+            } else {
+                cancel(bookingId);
+            }
+        };
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    change.run();
+                }
+            });
+        } else {
+            change.run();
+        }
+    }
+
+    public synchronized int size() {
+        return wheel.size();
+    }
+
+    private synchronized void schedule(Long bookingId, Long itemId, Long ownerId,
+                                       LocalDateTime start, LocalDateTime end) {
+        long now = clock.millis();
+        BookingTransitionEvent started =
+                new BookingTransitionEvent(bookingId, itemId, ownerId, BookingTransitionEvent.Kind.STARTED, start);
+        BookingTransitionEvent ended =
+                new BookingTransitionEvent(bookingId, itemId, ownerId, BookingTransitionEvent.Kind.ENDED, end);
+        add(started, now);
+        add(ended, now);
+        if (changedDuringRefill != null) {
+            changedDuringRefill.put(bookingId, List.of(started, ended));
+        }
+    }
+
+    private synchronized void cancel(Long bookingId) {
+        wheel.cancel(new Key(bookingId, BookingTransitionEvent.Kind.STARTED));
+        wheel.cancel(new Key(bookingId, BookingTransitionEvent.Kind.ENDED));
+        if (changedDuringRefill != null) {
+            changedDuringRefill.put(bookingId, List.of());
+        }
+    }
+
+    /**
+     * Переход за пределами загруженного окна не нужен: его подгрузит следующий refill.
+     * При заполненном колесе окно сдвигается назад, и переход тоже будет прочитан из БД позже.
+     */
+    private void add(BookingTransitionEvent event, long now) {
+        long at = toMillis(event.getAt());
+        if (at < now || at >= loadedUntil) {
+            return;
+        }
+        if (wheel.size() >= maxEntries) {
+            loadedUntil = at;
+            return;
+        }
+        wheel.add(new Key(event.getBookingId(), event.getKind()), at, event);
+    }
+
+    /**
+     * Дочитывает из БД переходы от loadedUntil до now + horizon, пока в колесе есть место.
+     * Если место закончилось, окно обрывается на последнем прочитанном переходе.
+     * Запросы идут без блокировки, чтобы не задерживать schedule/cancel после коммитов бронирований,
+     * результат сливается с колесом под блокировкой.
+     */
+    private void refill(long now) {
+        long from;
+        long to;
+        long loadedBefore;
+        int room;
+        synchronized (this) {
+            from = Math.max(loadedUntil, now);
+            to = now + horizon;
+            room = maxEntries - wheel.size();
+            if (changedDuringRefill != null || from >= to || room <= 0) {
+                return;
+            }
+            loadedBefore = loadedUntil;
+            changedDuringRefill = new HashMap<>();
+        }
+        List<BookingBounds> starts;
+        List<BookingBounds> ends;
+        try {
+            PageRequest page = PageRequest.of(0, room);
+            LocalDateTime fromTime = toDateTime(from);
+            LocalDateTime toTime = toDateTime(to);
+            starts = bookingRepository.findApprovedStartingBetween(fromTime, toTime, page);
+            ends = bookingRepository.findApprovedEndingBetween(fromTime, toTime, page);
+        } catch (RuntimeException e) {
+            synchronized (this) {
+                changedDuringRefill = null;
+            }
+            throw e;
+        }
+        synchronized (this) {
+            Map<Long, List<BookingTransitionEvent>> changed = changedDuringRefill;
+            changedDuringRefill = null;
+            // колесо переполнилось и окно сдвинулось назад: всё прочитанное подгрузит следующий refill
+            if (loadedUntil == loadedBefore) {
+                merge(from, to, room, starts, ends, changed);
+            }
+        }
+    }
+
+    private void merge(long from, long to, int room, List<BookingBounds> starts, List<BookingBounds> ends,
+                       Map<Long, List<BookingTransitionEvent>> changed) {
+        long until = to;
+        if (starts.size() == room) {
+            until = Math.min(until, toMillis(starts.get(room - 1).getStart()));
+        }
+        if (ends.size() == room) {
+            until = Math.min(until, toMillis(ends.get(room - 1).getEnd()));
+        }
+        loadedUntil = until;
+        for (BookingBounds bounds : starts) {
+            if (!changed.containsKey(bounds.getId())) {
+                add(event(bounds, BookingTransitionEvent.Kind.STARTED, bounds.getStart()), from);
+            }
+        }
+        for (BookingBounds bounds : ends) {
+            if (!changed.containsKey(bounds.getId())) {
+                add(event(bounds, BookingTransitionEvent.Kind.ENDED, bounds.getEnd()), from);
+            }
+        }
+        // переходы раньше from уже добавлены или сняты при самом изменении
+        changed.values().forEach(events -> events.forEach(event -> add(event, from)));
+    }
+
+    private static BookingTransitionEvent event(BookingBounds bounds, BookingTransitionEvent.Kind kind,
+                                                LocalDateTime at) {
+        return new BookingTransitionEvent(bounds.getId(), bounds.getItemId(), bounds.getOwnerId(), kind, at);
+    }
+
+    private long toMillis(LocalDateTime time) {
+        return time.atZone(clock.getZone()).toInstant().toEpochMilli();
+    }
+
+    private LocalDateTime toDateTime(long millis) {
+        return LocalDateTime.ofInstant(Instant.ofEpochMilli(millis), clock.getZone());
+    }
+
+    private static final class Key {
+        private final Long bookingId;
+        private final BookingTransitionEvent.Kind kind;
+
+        private Key(Long bookingId, BookingTransitionEvent.Kind kind) {
+            this.bookingId = bookingId;
+            this.kind = kind;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof Key)) {
+                return false;
+            }
+            Key key = (Key) o;
+            return bookingId.equals(key.bookingId) && kind == key.kind;
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(bookingId, kind);
+        }
+    }
+}
@@ -0,0 +1,251 @@
+package ru.practicum.server.booking.transition;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+
+/**
+ * Иерархическое колесо таймеров.
+ * Нижний уровень делит время на слоты по tick миллисекунд, каждый следующий уровень создаётся по требованию
+ * и покрывает в wheelSize раз больший интервал. Добавление и отмена занимают O(1), при наступлении срока
+ * записи слота верхнего уровня переразмещаются на уровень ниже. В очереди по времени лежат только непустые
+ * слоты, поэтому продвижение часов не перебирает пустые тики даже после долгого простоя.
+ * Запись срабатывает не раньше своего времени и не позже чем через tick после него.
+ * Не потокобезопасно, синхронизацию обеспечивает вызывающий код.
+ *
+ * @param <K> ключ записи, повторное добавление по ключу переносит запись на новое время
+ * @param <V> значение, отдаваемое при срабатывании
+ */
+public class TimingWheel<K, V> {
+
+    private final int wheelSize;
+    private final Level root;
+    private final Map<K, Node<K, V>> nodes = new HashMap<>();
+    private final PriorityQueue<Bucket<K, V>> queue =
+            new PriorityQueue<>(Comparator.<Bucket<K, V>>comparingLong(bucket -> bucket.expiration)
+                    .thenComparingInt(bucket -> bucket.depth));
+    private final Deque<Node<K, V>> ready = new ArrayDeque<>();
+
+    public TimingWheel(long tick, int wheelSize, long startMs) {
+        this.wheelSize = wheelSize;
+        this.root = new Level(tick, startMs, 0);
+    }
+
+    /**
+     * Планирует значение на момент at. Если срок уже наступил, значение отдаст ближайший {@link #advance(long)}.
+     *
+     * @return false, если запись с тем же ключом и временем уже запланирована
+     */
+    public boolean add(K key, long at, V value) {
+        Node<K, V> existing = nodes.get(key);
+        if (existing != null) {
+            if (existing.at == at) {
+                return false;
+            }
+            unlink(existing);
+        }
+        Node<K, V> node = new Node<>(key, at, value);
+        nodes.put(key, node);
+        if (!root.add(node)) {
+            ready.add(node);
+        }
+        return true;
+    }
+
+    public boolean cancel(K key) {
+        Node<K, V> node = nodes.remove(key);
+        if (node == null) {
+            return false;
+        }
+        unlink(node);
+        return true;
+    }
+
+    public boolean contains(K key) {
+        return nodes.containsKey(key);
+    }
+
+    public int size() {
+        return nodes.size();
+    }
+
+    public void clear() {
+        nodes.clear();
+        queue.clear();
+        ready.clear();
+        root.clear();
+    }
+
+    /**
+     * Продвигает часы до now.
+     *
+     * @return значения, срок которых наступил, в порядке слотов
+     */
+    public List<V> advance(long now) {
+        List<V> due = new ArrayList<>();
+        drainReady(due);
+        while (!queue.isEmpty() && queue.peek().expiration <= now) {
+            Bucket<K, V> bucket = queue.poll();
+            root.advance(bucket.expiration);
+            for (Node<K, V> node : bucket.flush()) {
+                if (!root.add(node)) {
+                    nodes.remove(node.key);
+                    due.add(node.value);
+                }
+            }
+        }
+        root.advance(now);
+        return due;
+    }
+
+    private void drainReady(List<V> due) {
+        Node<K, V> node;
+        while ((node = ready.poll()) != null) {
+            nodes.remove(node.key);
+            due.add(node.value);
+        }
+    }
+
+    private void unlink(Node<K, V> node) {
+        if (node.bucket != null) {
+            node.bucket.remove(node);
+        } else {
+            ready.remove(node);
+        }
+    }
+
+    private final class Level {
+        private final long tick;
+        private final long interval;
+        private final Bucket<K, V>[] buckets;
+        /**
+         * Слот нижнего уровня (depth = 0) срабатывает в конце своего тика, слоты верхних уровней - в начале,
+         * чтобы успеть переразместить записи на уровень ниже. При равном времени первым сбрасывается нижний уровень.
+         */
+        private final int depth;
+        private long currentTime;
+        private Level overflow;
+
+        @SuppressWarnings("unchecked")
+        private Level(long tick, long startMs, int depth) {
+            this.tick = tick;
+            this.depth = depth;
+            this.interval = tick * wheelSize;
+            this.buckets = new Bucket[wheelSize];
+            for (int i = 0; i < wheelSize; i++) {
+                buckets[i] = new Bucket<>(depth);
+            }
+            this.currentTime = startMs - startMs % tick;
+        }
+
+        /**
+         * @return false, если срок записи уже прошёл
+         */
+        private boolean add(Node<K, V> node) {
+            if (node.at < (depth == 0 ? currentTime : currentTime + tick)) {
+                return false;
+            }
+            if (node.at < currentTime + interval) {
+                long virtualId = node.at / tick;
+                Bucket<K, V> bucket = buckets[(int) (virtualId % wheelSize)];
+                bucket.add(node);
+                if (bucket.setExpiration((depth == 0 ? virtualId + 1 : virtualId) * tick)) {
+                    queue.add(bucket);
+                }
+                return true;
+            }
+            if (overflow == null) {
+                overflow = new Level(interval, currentTime, depth + 1);
+            }
+            return overflow.add(node);
+        }
+
+        private void advance(long time) {
+            if (time >= currentTime + tick) {
+                currentTime = time - time % tick;
+                if (overflow != null) {
+                    overflow.advance(currentTime);
+                }
+            }
+        }
+
+        private void clear() {
+            for (Bucket<K, V> bucket : buckets) {
+                bucket.flush();
+            }
+            overflow = null;
+        }
+    }
+
+    /**
+     * Слот колеса: двусвязный список с фиктивной головой и временем срабатывания, -1 если слот не в очереди.
+     */
+    private static final class Bucket<K, V> {
+        private final Node<K, V> head = new Node<>(null, 0, null);
+        private final int depth;
+        private long expiration = -1;
+
+        private Bucket(int depth) {
+            this.depth = depth;
+            head.next = head;
+            head.prev = head;
+        }
+
+        private boolean setExpiration(long expiration) {
+            if (this.expiration == expiration) {
+                return false;
+            }
+            this.expiration = expiration;
+            return true;
+        }
+
+        private void add(Node<K, V> node) {
+            node.bucket = this;
+            node.prev = head.prev;
+            node.next = head;
+            head.prev.next = node;
+            head.prev = node;
+        }
+
+        private void remove(Node<K, V> node) {
+            node.prev.next = node.next;
+            node.next.prev = node.prev;
+            node.prev = null;
+            node.next = null;
+            node.bucket = null;
+        }
+
+        private List<Node<K, V>> flush() {
+            List<Node<K, V>> flushed = new ArrayList<>();
+            Node<K, V> node = head.next;
+            while (node != head) {
+                Node<K, V> next = node.next;
+                remove(node);
+                flushed.add(node);
+                node = next;
+            }
+            expiration = -1;
+            return flushed;
+        }
+    }
+
+    private static final class Node<K, V> {
+        private final K key;
+        private final long at;
+        private final V value;
+        private Bucket<K, V> bucket;
+        private Node<K, V> prev;
+        private Node<K, V> next;
+
+        private Node(K key, long at, V value) {
+            this.key = key;
+            this.at = at;
+            this.value = value;
+        }
+    }
+}
@@ -0,0 +1,23 @@
+package ru.practicum.server.etag;
+
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.ShallowEtagHeaderFilter;
+
+import javax.servlet.http.HttpServletRequest;
+import java.util.regex.Pattern;
+
+/**
+ * ETag по содержимому ответа для GET, которые кэширует шлюз: /items/{id}, /requests/all, /users/{id}.
+ * На If-None-Match с тем же ETag отвечает 304 без тела, так что шлюз перепроверяет кэш, не получая ответ заново.
+ * Остальные запросы не буферизуются.
+ */
+@Component
+public class EtagFilter extends ShallowEtagHeaderFilter {
+
+    private static final Pattern CACHEABLE = Pattern.compile("/items/\\d+|/requests/all|/users/\\d+");
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !"GET".equals(request.getMethod()) || !CACHEABLE.matcher(request.getRequestURI()).matches();
+    }
+}
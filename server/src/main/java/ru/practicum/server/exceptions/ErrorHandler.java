@@ -39,7 +39,8 @@ public class ErrorHandler {
     @ExceptionHandler({MethodArgumentTypeMismatchException.class,
             MissingServletRequestParameterException.class,
             MissingRequestHeaderException.class,
-            ItemIsNotAvailableForBookingException.class
+            ItemIsNotAvailableForBookingException.class,
+            ValidationFieldException.class
     })
     @ResponseStatus(HttpStatus.BAD_REQUEST)
     public ErrorResponse handleMethodArgumentTypeMismatchExceptionD(Exception e) {
@@ -49,6 +50,8 @@ public class ErrorHandler {
 
         if (e instanceof ItemIsNotAvailableForBookingException) {
             exceptionType = "ItemIsNotAvailableForBookingException";
+        } else if (e instanceof ValidationFieldException) {
+            exceptionType = "ValidationFieldException";
         } else if (e instanceof MissingRequestHeaderException) {
             exceptionType = "MissingRequestHeaderException";
         } else if (e instanceof MissingServletRequestParameterException) {
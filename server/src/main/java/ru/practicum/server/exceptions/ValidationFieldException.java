@@ -0,0 +1,7 @@
+package ru.practicum.server.exceptions;
+
+public class ValidationFieldException extends RuntimeException {
+    public ValidationFieldException(String s) {
+        super(s);
+    }
+}
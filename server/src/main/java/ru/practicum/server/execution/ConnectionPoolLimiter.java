@@ -0,0 +1,134 @@
+package ru.practicum.server.execution;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import ru.practicum.server.exceptions.ErrorResponse;
+
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Ограничивает число запросов, одновременно обрабатываемых в режиме виртуальных потоков.
+ * Пул Tomcat больше не сдерживает нагрузку, и без ограничения тысячи запросов одновременно ждали бы
+ * соединения Hikari до connection-timeout. Допуск по умолчанию равен размеру пула соединений, остальные запросы
+ * ждут не дольше shareit.threads.pool-wait и получают 503.
+ */
+@Slf4j
+@Component
+public class ConnectionPoolLimiter extends OncePerRequestFilter implements MeterBinder {
+
+    private static final int HIKARI_DEFAULT_POOL_SIZE = 10;
+
+    private final boolean enabled;
+    private final int permits;
+    private final Semaphore semaphore;
+    private final Duration wait;
+    private final ObjectMapper objectMapper;
+    private final AtomicInteger waiting = new AtomicInteger();
+    private final LongAdder rejected = new LongAdder();
+
+    public ConnectionPoolLimiter(@Value("${shareit.threads.mode:platform}") String mode,
+                                 @Value("${shareit.threads.pool-permits:0}") int permits,
+                                 @Value("${shareit.threads.pool-wait:PT5S}") Duration wait,
+                                 ObjectProvider<DataSource> dataSource,
+                                 ObjectMapper objectMapper) {
+        this.enabled = RequestThreads.VIRTUAL.equalsIgnoreCase(mode);
+        this.permits = permits > 0 ? permits : poolSize(dataSource.getIfAvailable());
+        this.semaphore = new Semaphore(this.permits, true);
+        this.wait = wait;
+        this.objectMapper = objectMapper;
+        if (enabled) {
+            log.info("Одновременно обрабатывается не больше {} запросов, ожидание допуска {}", this.permits, wait);
+        }
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !enabled || request.getRequestURI().startsWith("/actuator");
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        if (!acquire()) {
+            rejected.increment();
+            log.warn("Запрос {} {} отклонён: все {} допусков заняты дольше {}",
+                    request.getMethod(), request.getRequestURI(), permits, wait);
+            response.setStatus(HttpStatus.SERVICE_UNAVAILABLE.value());
+            response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+            response.setCharacterEncoding(StandardCharsets.UTF_8.name());
+            objectMapper.writeValue(response.getOutputStream(),
+                    new ErrorResponse("ServiceUnavailable", "Сервер перегружен, повторите запрос позже"));
+            return;
+        }
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            semaphore.release();
+        }
+    }
+
+    public int getActive() {
+        return permits - semaphore.availablePermits();
+    }
+
+    public int getWaiting() {
+        return waiting.get();
+    }
+
+    public long getRejected() {
+        return rejected.sum();
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        if (!enabled) {
+            return;
+        }
+        Gauge.builder("shareit.requests.active", this, ConnectionPoolLimiter::getActive)
+                .register(registry);
+        Gauge.builder("shareit.requests.waiting", this, ConnectionPoolLimiter::getWaiting)
+                .register(registry);
+        FunctionCounter.builder("shareit.requests.rejected", this, ConnectionPoolLimiter::getRejected)
+                .register(registry);
+    }
+
+    private boolean acquire() {
+        waiting.incrementAndGet();
+        try {
+            return semaphore.tryAcquire(wait.toMillis(), TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        } finally {
+            waiting.decrementAndGet();
+        }
+    }
+
+    private static int poolSize(DataSource dataSource) {
+        return dataSource instanceof HikariDataSource
+                ? ((HikariDataSource) dataSource).getMaximumPoolSize()
+                : HIKARI_DEFAULT_POOL_SIZE;
+    }
+}
@@ -40,4 +40,15 @@ public class CommentMapper {
                         comment.getItem().getName()))
                 .build();
     }
+
+    public CommentResponseDto toCommentResponseDto(CommentWithTotal comment) {
+        return CommentResponseDto
+                .builder()
+                .id(comment.getId())
+                .authorName(comment.getAuthorName())
+                .created(comment.getCreated())
+                .text(comment.getText())
+                .item(new Item(comment.getItemId(), comment.getItemName()))
+                .build();
+    }
 }
\ No newline at end of file
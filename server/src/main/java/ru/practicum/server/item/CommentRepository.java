@@ -1,13 +1,36 @@
 package ru.practicum.server.item;
 
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
+import java.util.Collection;
 import java.util.List;
 
 public interface CommentRepository extends JpaRepository<Comment, Long> {
 
-    List<Comment> findAllByItemId(Long itemId);
+    @Query("SELECT c " +
+            "FROM Comment AS c " +
+            "JOIN FETCH c.item " +
+            "WHERE c.item.id = :itemId " +
+            "ORDER BY c.created DESC, c.id DESC")
+    List<Comment> findAllByItemId(@Param("itemId") Long itemId, Pageable pageable);
 
-    List<Comment> findAllByAndAuthorName(String author);
-
-}
\ No newline at end of file
+    /**
+     * Не больше limit последних отзывов каждой вещи из itemIds и общее число её отзывов - одним запросом.
+     * Отзывы нумеруются оконной функцией внутри вещи по индексу comments_item_created_idx.
+     */
+    @Query(value = "SELECT c.comment_id AS id, c.text AS text, c.item_id AS itemId, i.name AS itemName, " +
+            "c.author_name AS authorName, c.created AS created, c.total AS total " +
+            "FROM (SELECT cm.*, " +
+            "ROW_NUMBER() OVER (PARTITION BY cm.item_id ORDER BY cm.created DESC, cm.comment_id DESC) AS rank_no, " +
+            "COUNT(*) OVER (PARTITION BY cm.item_id) AS total " +
+            "FROM comments AS cm " +
+            "WHERE cm.item_id IN (:itemIds)) AS c " +
+            "JOIN items AS i ON i.item_id = c.item_id " +
+            "WHERE c.rank_no <= :limit " +
+            "ORDER BY c.item_id, c.rank_no",
+            nativeQuery = true)
+    List<CommentWithTotal> findLatestByItemIdIn(@Param("itemIds") Collection<Long> itemIds, @Param("limit") int limit);
+}
@@ -0,0 +1,23 @@
+package ru.practicum.server.item;
+
+import java.time.LocalDateTime;
+
+/**
+ * Отзыв вместе с общим числом отзывов его вещи.
+ */
+public interface CommentWithTotal {
+
+    Long getId();
+
+    String getText();
+
+    Long getItemId();
+
+    String getItemName();
+
+    String getAuthorName();
+
+    LocalDateTime getCreated();
+
+    Long getTotal();
+}
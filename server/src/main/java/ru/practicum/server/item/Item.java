@@ -1,6 +1,8 @@
 package ru.practicum.server.item;
 
 import lombok.*;
+import org.hibernate.annotations.DynamicUpdate;
+import ru.practicum.server.item.search.ItemSearchIndexListener;
 import ru.practicum.server.user.User;
 
 import javax.persistence.*;
@@ -12,11 +14,17 @@ import javax.validation.constraints.NotNull;
 @NoArgsConstructor
 @Builder
 @Entity
+@NamedEntityGraph(name = Item.WITH_OWNER, attributeNodes = @NamedAttributeNode("owner"))
+@DynamicUpdate
+@EntityListeners(ItemSearchIndexListener.class)
 @Table(name = "items")
 public class Item {
 
+    public static final String WITH_OWNER = "Item.owner";
+
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "items_seq")
+    @SequenceGenerator(name = "items_seq", sequenceName = "items_seq", allocationSize = 50)
     @Column(name = "item_id")
     private Long id;
     @NotBlank(message = "Имя не может быть пустым")
@@ -25,7 +33,7 @@ public class Item {
     @Column(name = "description")
     @NotBlank(message = "Описание не может быть пустым")
     private String description;
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "user_id", referencedColumnName = "user_id")
     @ToString.Exclude
     private User owner;
@@ -0,0 +1,88 @@
+package ru.practicum.server.item;
+
+import ru.practicum.server.booking.BookingBounds;
+import ru.practicum.server.item.dto.FreeSlotDto;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Занятость вещи начиная с момента since: активные бронирования, слитые в непересекающиеся интервалы.
+ * Строится одним проходом по бронированиям, отсортированным по началу. Свободные интервалы любого окна
+ * находятся бинарным поиском первого занятого интервала и проходом до конца окна.
+ */
+public class ItemAvailability {
+
+    private final LocalDateTime since;
+    private final LocalDateTime[] starts;
+    private final LocalDateTime[] ends;
+
+    private ItemAvailability(LocalDateTime since, LocalDateTime[] starts, LocalDateTime[] ends) {
+        this.since = since;
+        this.starts = starts;
+        this.ends = ends;
+    }
+
+    /**
+     * @param bookings бронирования, закончившиеся после since, по возрастанию начала
+     */
+    public static ItemAvailability merge(LocalDateTime since, List<BookingBounds> bookings) {
+        List<LocalDateTime> starts = new ArrayList<>();
+        List<LocalDateTime> ends = new ArrayList<>();
+        for (BookingBounds booking : bookings) {
+            int last = ends.size() - 1;
+            if (last >= 0 && !booking.getStart().isAfter(ends.get(last))) {
+                if (booking.getEnd().isAfter(ends.get(last))) {
+                    ends.set(last, booking.getEnd());
+                }
+            } else {
+                starts.add(booking.getStart());
+                ends.add(booking.getEnd());
+            }
+        }
+        return new ItemAvailability(since, starts.toArray(new LocalDateTime[0]), ends.toArray(new LocalDateTime[0]));
+    }
+
+    /**
+     * Занятость известна только начиная с since, окна раньше него нужно строить заново.
+     */
+    public boolean covers(LocalDateTime from) {
+        return !from.isBefore(since);
+    }
+
+    public List<FreeSlotDto> free(LocalDateTime from, LocalDateTime to) {
+        List<FreeSlotDto> slots = new ArrayList<>();
+        LocalDateTime cursor = from;
+        for (int i = firstEndingAfter(from); i < starts.length && starts[i].isBefore(to); i++) {
+            if (starts[i].isAfter(cursor)) {
+                slots.add(new FreeSlotDto(cursor, starts[i]));
+            }
+            if (ends[i].isAfter(cursor)) {
+                cursor = ends[i];
+            }
+        }
+        if (cursor.isBefore(to)) {
+            slots.add(new FreeSlotDto(cursor, to));
+        }
+        return slots;
+    }
+
+    public int size() {
+        return starts.length;
+    }
+
+    private int firstEndingAfter(LocalDateTime time) {
+        int low = 0;
+        int high = ends.length;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (ends[mid].isAfter(time)) {
+                high = mid;
+            } else {
+                low = mid + 1;
+            }
+        }
+        return low;
+    }
+}
@@ -0,0 +1,128 @@
+package ru.practicum.server.item;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+
+/**
+ * Кэш занятости вещей для GET /items/{id}/availability.
+ * Запись живёт до следующего изменения бронирований вещи, число вещей ограничено,
+ * вытесняются давно не читанные.
+ */
+@Component
+public class ItemAvailabilityCache implements MeterBinder {
+
+    private final int maxItems;
+    private final Map<Long, ItemAvailability> entries;
+    private final AtomicLong generation = new AtomicLong();
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+
+    public ItemAvailabilityCache(@Value("${shareit.availability-cache.max-items:10000}") int maxItems) {
+        this.maxItems = maxItems;
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Long, ItemAvailability> eldest) {
+                return size() > ItemAvailabilityCache.this.maxItems;
+            }
+        };
+    }
+
+    /**
+     * Возвращает занятость вещи, покрывающую момент from, или строит её через loader начиная с since.
+     * Если пока шла загрузка бронирования вещи изменились, результат в кэш не попадёт.
+     */
+    public ItemAvailability get(Long itemId, LocalDateTime from, Function<LocalDateTime, ItemAvailability> loader) {
+        long stamp = generation.get();
+        synchronized (this) {
+            ItemAvailability cached = entries.get(itemId);
+            if (cached != null && cached.covers(from)) {
+                hits.increment();
+                return cached;
+            }
+        }
+        misses.increment();
+        LocalDateTime now = LocalDateTime.now();
+        ItemAvailability availability = loader.apply(from.isBefore(now) ? from : now);
+        synchronized (this) {
+            if (generation.get() == stamp) {
+                entries.put(itemId, availability);
+            }
+        }
+        return availability;
+    }
+
+    /**
+     * Сбрасывает вещь сразу и ещё раз после коммита текущей транзакции.
+     */
+    public void evict(Long itemId) {
+        remove(itemId);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    remove(itemId);
+                }
+            });
+        }
+    }
+
+    /**
+     * Сбрасывает весь кэш сразу и ещё раз после коммита текущей транзакции.
+     */
+    public void clear() {
+        removeAll();
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    removeAll();
+                }
+            });
+        }
+    }
+
+    public long getHits() {
+        return hits.sum();
+    }
+
+    public long getMisses() {
+        return misses.sum();
+    }
+
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        FunctionCounter.builder("shareit.item.availability.hits", this, ItemAvailabilityCache::getHits)
+                .register(registry);
+        FunctionCounter.builder("shareit.item.availability.misses", this, ItemAvailabilityCache::getMisses)
+                .register(registry);
+        Gauge.builder("shareit.item.availability.size", this, ItemAvailabilityCache::size)
+                .register(registry);
+    }
+
+    private synchronized void remove(Long itemId) {
+        generation.incrementAndGet();
+        entries.remove(itemId);
+    }
+
+    private synchronized void removeAll() {
+        generation.incrementAndGet();
+        entries.clear();
+    }
+}
@@ -0,0 +1,132 @@
+package ru.practicum.server.item;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.server.exceptions.ValidationIdException;
+import ru.practicum.server.item.dto.ItemBatchResultDto;
+import ru.practicum.server.item.dto.ItemDto;
+import ru.practicum.server.request.ItemRequest;
+import ru.practicum.server.request.ItemRequestRepository;
+import ru.practicum.server.user.User;
+import ru.practicum.server.user.UserRepository;
+
+import javax.persistence.EntityManager;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Массовое создание вещей одного владельца.
+ * Владелец и запросы проверяются один раз на весь пакет, строки с ошибками отклоняются по отдельности,
+ * остальные пишутся пачками: id берутся блоками из items_seq, INSERT уходят JDBC-батчем.
+ */
+@Slf4j
+@Service
+public class ItemBatchService {
+    /**
+     * Длина столбцов items.name и items.description (varchar(100) в V1__create_tables.sql).
+     */
+    private static final int MAX_TEXT_LENGTH = 100;
+
+    private final ItemRepository itemRepository;
+    private final UserRepository userRepository;
+    private final ItemRequestRepository itemRequestRepository;
+    private final EntityManager entityManager;
+    private final int chunkSize;
+
+    public ItemBatchService(ItemRepository itemRepository,
+                            UserRepository userRepository,
+                            ItemRequestRepository itemRequestRepository,
+                            EntityManager entityManager,
+                            @Value("${shareit.item-batch.chunk-size:50}") int chunkSize) {
+        this.itemRepository = itemRepository;
+        this.userRepository = userRepository;
+        this.itemRequestRepository = itemRequestRepository;
+        this.entityManager = entityManager;
+        this.chunkSize = chunkSize;
+    }
+
+    @Transactional
+    public List<ItemBatchResultDto> create(List<ItemDto> dtos, Long userId) {
+        if (!userRepository.existsById(userId)) {
+            throw new ValidationIdException("Пользователь не найден");
+        }
+        User owner = userRepository.getReferenceById(userId);
+        Set<Long> requestIds = itemRequestRepository.findAllById(dtos.stream()
+                        .filter(Objects::nonNull)
+                        .map(ItemDto::getRequestId)
+                        .filter(Objects::nonNull)
+                        .collect(Collectors.toSet()))
+                .stream()
+                .map(ItemRequest::getId)
+                .collect(Collectors.toSet());
+
+        List<ItemBatchResultDto> results = new ArrayList<>(dtos.size());
+        List<Item> chunk = new ArrayList<>(chunkSize);
+        List<ItemBatchResultDto> chunkResults = new ArrayList<>(chunkSize);
+        for (int i = 0; i < dtos.size(); i++) {
+            ItemDto dto = dtos.get(i);
+            ItemBatchResultDto result = ItemBatchResultDto.builder().index(i).build();
+            results.add(result);
+            String error = validate(dto, requestIds);
+            if (error != null) {
+                result.setError(error);
+                continue;
+            }
+            Item item = ItemMapper.toItem(dto, owner);
+            item.setId(null);
+            chunk.add(item);
+            chunkResults.add(result);
+            if (chunk.size() == chunkSize) {
+                write(chunk, chunkResults);
+            }
+        }
+        write(chunk, chunkResults);
+        log.info("Пакетно создано {} из {} вещей пользователя {}",
+                results.stream().filter(result -> result.getId() != null).count(), dtos.size(), userId);
+        return results;
+    }
+
+    private void write(List<Item> chunk, List<ItemBatchResultDto> chunkResults) {
+        if (chunk.isEmpty()) {
+            return;
+        }
+        List<Item> saved = itemRepository.saveAll(chunk);
+        entityManager.flush();
+        entityManager.clear();
+        for (int i = 0; i < saved.size(); i++) {
+            chunkResults.get(i).setId(saved.get(i).getId());
+        }
+        chunk.clear();
+        chunkResults.clear();
+    }
+
+    private static String validate(ItemDto dto, Set<Long> requestIds) {
+        if (dto == null) {
+            return "Пустая строка";
+        }
+        if (dto.getName() == null || dto.getName().isBlank()) {
+            return "Имя не может быть пустым";
+        }
+        if (dto.getName().length() > MAX_TEXT_LENGTH) {
+            return "Имя не может быть более " + MAX_TEXT_LENGTH + " символов";
+        }
+        if (dto.getDescription() == null || dto.getDescription().isBlank()) {
+            return "Описание не может быть пустым";
+        }
+        if (dto.getDescription().length() > MAX_TEXT_LENGTH) {
+            return "Описание не может быть более " + MAX_TEXT_LENGTH + " символов";
+        }
+        if (dto.getAvailable() == null) {
+            return "Статус бронирования не может быть пустым";
+        }
+        if (dto.getRequestId() != null && !requestIds.contains(dto.getRequestId())) {
+            return "Запрос не найден";
+        }
+        return null;
+    }
+}
@@ -0,0 +1,51 @@
+package ru.practicum.server.item;
+
+import ru.practicum.server.item.dto.CommentResponseDto;
+
+import java.util.*;
+
+/**
+ * Последние отзывы и общее число отзывов по вещам, собранные за один проход по результату
+ * {@link CommentRepository#findLatestByItemIdIn}.
+ */
+public class ItemComments {
+
+    private static final ItemComments EMPTY = new ItemComments(Collections.emptyMap(), Collections.emptyMap());
+
+    private final Map<Long, List<CommentResponseDto>> latest;
+    private final Map<Long, Long> totals;
+
+    private ItemComments(Map<Long, List<CommentResponseDto>> latest, Map<Long, Long> totals) {
+        this.latest = latest;
+        this.totals = totals;
+    }
+
+    public static ItemComments empty() {
+        return EMPTY;
+    }
+
+    public static ItemComments of(Collection<CommentWithTotal> comments) {
+        if (comments.isEmpty()) {
+            return EMPTY;
+        }
+        Map<Long, List<CommentResponseDto>> latest = new HashMap<>();
+        Map<Long, Long> totals = new HashMap<>();
+        for (CommentWithTotal comment : comments) {
+            latest.computeIfAbsent(comment.getItemId(), id -> new ArrayList<>())
+                    .add(CommentMapper.toCommentResponseDto(comment));
+            totals.put(comment.getItemId(), comment.getTotal());
+        }
+        return new ItemComments(latest, totals);
+    }
+
+    /**
+     * Последние отзывы вещи, от новых к старым.
+     */
+    public List<CommentResponseDto> latest(Long itemId) {
+        return latest.getOrDefault(itemId, new ArrayList<>());
+    }
+
+    public long total(Long itemId) {
+        return totals.getOrDefault(itemId, 0L);
+    }
+}
@@ -2,15 +2,19 @@ package ru.practicum.server.item;
 
 import lombok.AllArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus;
 import org.springframework.validation.BindingResult;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import ru.practicum.server.item.dto.ItemBatchResultDto;
 import ru.practicum.server.item.dto.ItemDto;
 import ru.practicum.server.item.dto.ItemResponseDto;
 import ru.practicum.server.item.dto.CommentDto;
 import ru.practicum.server.item.dto.CommentResponseDto;
+import ru.practicum.server.item.dto.FreeSlotDto;
 
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Map;
 
@@ -22,6 +26,7 @@ import java.util.Map;
 public class ItemController {
 
     private final ItemService itemService;
+    private final ItemBatchService itemBatchService;
     private static final String REQUEST_HEADER = "X-Sharer-User-Id";
 
     @PostMapping
@@ -32,6 +37,13 @@ public class ItemController {
         return itemService.create(dto, userId);
     }
 
+    @PostMapping("/batch")
+    public List<ItemBatchResultDto> createBatch(@RequestHeader(REQUEST_HEADER) Long userId,
+                                                @RequestBody List<ItemDto> dtos) {
+        log.info("Получен запрос к эндпоинту /items/batch createBatch с headers {}, строк {}", userId, dtos.size());
+        return itemBatchService.create(dtos, userId);
+    }
+
     @GetMapping
     public List<ItemResponseDto> getAll(@RequestHeader(REQUEST_HEADER) Long userId) {
         log.info("Получен запрос к эндпоинту: /items getAll с headers {}", userId);
@@ -45,6 +57,24 @@ public class ItemController {
         return itemService.getById(itemId, userId);
     }
 
+    @GetMapping("/{id}/availability")
+    public List<FreeSlotDto> getAvailability(@PathVariable("id") Long itemId,
+                                             @RequestParam("from") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+                                             LocalDateTime from,
+                                             @RequestParam("to") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+                                             LocalDateTime to) {
+        log.info("Получен запрос к эндпоинту: /items/{}/availability с from {}, to {}", itemId, from, to);
+        return itemService.getAvailability(itemId, from, to);
+    }
+
+    @GetMapping("/{id}/comments")
+    public List<CommentResponseDto> getComments(@PathVariable("id") Long itemId,
+                                                @RequestParam(name = "from", defaultValue = "0") Integer from,
+                                                @RequestParam(name = "size", defaultValue = "10") Integer size) {
+        log.info("Получен запрос к эндпоинту: /items/{}/comments с from {}, size {}", itemId, from, size);
+        return itemService.getComments(itemId, from, size);
+    }
+
     @PatchMapping("/{id}")
     public ItemResponseDto update(@RequestHeader(REQUEST_HEADER) Long userId,
                                   @PathVariable("id") Long itemId,
@@ -62,9 +92,16 @@ public class ItemController {
     }
 
     @GetMapping("/search")
-    public List<ItemResponseDto> search(@RequestParam("text") String text) {
-        log.info("Получен запрос к эндпоинту: items/search с text: {}", text);
-        return itemService.search(text);
+    public List<ItemResponseDto> search(@RequestParam("text") String text,
+                                        @RequestParam(name = "start", required = false)
+                                        @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime start,
+                                        @RequestParam(name = "end", required = false)
+                                        @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime end,
+                                        @RequestParam(name = "from", defaultValue = "0") Integer from,
+                                        @RequestParam(name = "size", defaultValue = "10") Integer size) {
+        log.info("Получен запрос к эндпоинту: items/search с text: {}, start {}, end {}, from {}, size {}",
+                text, start, end, from, size);
+        return itemService.search(text, start, end, from, size);
     }
 
     @PostMapping("/{itemId}/comment")
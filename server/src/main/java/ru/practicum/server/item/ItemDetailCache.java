@@ -0,0 +1,247 @@
+package ru.practicum.server.item;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import ru.practicum.server.booking.dto.BookingDtoForItem;
+import ru.practicum.server.booking.transition.BookingTransitionEvent;
+import ru.practicum.server.item.dto.ItemResponseDto;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * Кэш собранных ответов GET /items/{id}.
+ * Для вещи хранятся два представления: для владельца (с бронированиями) и для остальных.
+ * Представление владельца живёт не дольше начала следующего бронирования - в этот момент меняются
+ * lastBooking/nextBooking. Размер ограничен суммарным весом записей (1 + число отзывов),
+ * вытесняются давно не читанные вещи.
+ */
+@Component
+public class ItemDetailCache implements MeterBinder {
+
+    private final long maxWeight;
+    private final Duration ttl;
+    private final LinkedHashMap<Long, Entry> entries = new LinkedHashMap<>(16, 0.75f, true);
+    private final AtomicLong generation = new AtomicLong();
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+    private long weight;
+
+    public ItemDetailCache(@Value("${shareit.item-cache.max-weight:10000}") long maxWeight,
+                           @Value("${shareit.item-cache.ttl:PT5M}") Duration ttl) {
+        this.maxWeight = maxWeight;
+        this.ttl = ttl;
+    }
+
+    /**
+     * Возвращает представление вещи из кэша или собирает его через loader.
+     * Если пока собирался ответ вещь была инвалидирована, результат в кэш не попадёт.
+     */
+    public ItemResponseDto get(Long itemId, Long userId, Supplier<ItemResponseDto> loader) {
+        LocalDateTime now = LocalDateTime.now();
+        long stamp = generation.get();
+        Optional<ItemResponseDto> cached = lookup(itemId, userId, now);
+        if (cached.isPresent()) {
+            hits.increment();
+            return cached.get();
+        }
+        misses.increment();
+        ItemResponseDto view = loader.get();
+        store(itemId, userId, view, now, stamp);
+        return view;
+    }
+
+    /**
+     * Сбрасывает вещь сразу и ещё раз после коммита текущей транзакции,
+     * чтобы параллельное чтение не положило в кэш данные до коммита.
+     */
+    public void evict(Long itemId) {
+        remove(itemId);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    remove(itemId);
+                }
+            });
+        }
+    }
+
+    /**
+     * Началось бронирование - у вещи сменились lastBooking/nextBooking.
+     */
+    @EventListener
+    public void onTransition(BookingTransitionEvent event) {
+        if (event.getKind() == BookingTransitionEvent.Kind.STARTED) {
+            remove(event.getItemId());
+        }
+    }
+
+    /**
+     * Сбрасывает весь кэш сразу и ещё раз после коммита текущей транзакции, как {@link #evict(Long)}.
+     */
+    public void clear() {
+        removeAll();
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    removeAll();
+                }
+            });
+        }
+    }
+
+    public long getHits() {
+        return hits.sum();
+    }
+
+    public long getMisses() {
+        return misses.sum();
+    }
+
+    public long getEvictions() {
+        return evictions.sum();
+    }
+
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        FunctionCounter.builder("shareit.item.cache.hits", this, ItemDetailCache::getHits)
+                .register(registry);
+        FunctionCounter.builder("shareit.item.cache.misses", this, ItemDetailCache::getMisses)
+                .register(registry);
+        FunctionCounter.builder("shareit.item.cache.evictions", this, ItemDetailCache::getEvictions)
+                .register(registry);
+        Gauge.builder("shareit.item.cache.size", this, ItemDetailCache::size)
+                .register(registry);
+    }
+
+    private synchronized Optional<ItemResponseDto> lookup(Long itemId, Long userId, LocalDateTime now) {
+        Entry entry = entries.get(itemId);
+        if (entry == null) {
+            return Optional.empty();
+        }
+        boolean owner = userId.equals(entry.ownerId);
+        View view = owner ? entry.ownerView : entry.publicView;
+        if (view == null) {
+            return Optional.empty();
+        }
+        if (!view.expiresAt.isAfter(now)) {
+            if (owner) {
+                entry.ownerView = null;
+            } else {
+                entry.publicView = null;
+            }
+            reweigh(itemId, entry);
+            return Optional.empty();
+        }
+        return Optional.of(view.dto);
+    }
+
+    private synchronized void store(Long itemId, Long userId, ItemResponseDto dto, LocalDateTime now, long stamp) {
+        if (generation.get() != stamp || dto.getOwner() == null) {
+            return;
+        }
+        Entry entry = entries.get(itemId);
+        if (entry == null || entry.ownerId != dto.getOwner().getId()) {
+            if (entry != null) {
+                weight -= entry.weight;
+            }
+            entry = new Entry(dto.getOwner().getId());
+            entries.put(itemId, entry);
+        }
+        LocalDateTime expiresAt = now.plus(ttl);
+        BookingDtoForItem next = dto.getNextBooking();
+        if (next != null && next.getStart() != null && next.getStart().isBefore(expiresAt)) {
+            expiresAt = next.getStart();
+        }
+        View view = new View(dto, expiresAt);
+        if (userId.equals(entry.ownerId)) {
+            entry.ownerView = view;
+        } else {
+            entry.publicView = view;
+        }
+        reweigh(itemId, entry);
+        evictOverflow();
+    }
+
+    private synchronized void remove(Long itemId) {
+        generation.incrementAndGet();
+        Entry entry = entries.remove(itemId);
+        if (entry != null) {
+            weight -= entry.weight;
+        }
+    }
+
+    private synchronized void removeAll() {
+        generation.incrementAndGet();
+        entries.clear();
+        weight = 0;
+    }
+
+    private void reweigh(Long itemId, Entry entry) {
+        weight -= entry.weight;
+        entry.weight = View.weight(entry.ownerView) + View.weight(entry.publicView);
+        if (entry.weight == 0) {
+            entries.remove(itemId);
+        } else {
+            weight += entry.weight;
+        }
+    }
+
+    private void evictOverflow() {
+        Iterator<Map.Entry<Long, Entry>> eldest = entries.entrySet().iterator();
+        while (weight > maxWeight && eldest.hasNext()) {
+            weight -= eldest.next().getValue().weight;
+            eldest.remove();
+            evictions.increment();
+        }
+    }
+
+    private static final class Entry {
+        private final long ownerId;
+        private View ownerView;
+        private View publicView;
+        private long weight;
+
+        private Entry(long ownerId) {
+            this.ownerId = ownerId;
+        }
+    }
+
+    private static final class View {
+        private final ItemResponseDto dto;
+        private final LocalDateTime expiresAt;
+
+        private View(ItemResponseDto dto, LocalDateTime expiresAt) {
+            this.dto = dto;
+            this.expiresAt = expiresAt;
+        }
+
+        private static long weight(View view) {
+            if (view == null) {
+                return 0;
+            }
+            return 1 + (view.dto.getComments() == null ? 0 : view.dto.getComments().size());
+        }
+    }
+}
@@ -3,6 +3,7 @@ package ru.practicum.server.item;
 import lombok.experimental.UtilityClass;
 import ru.practicum.server.booking.Booking;
 import ru.practicum.server.booking.BookingMapper;
+import ru.practicum.server.booking.BookingTimeline;
 import ru.practicum.server.booking.Status;
 import ru.practicum.server.booking.dto.BookingDtoForItem;
 import ru.practicum.server.item.dto.CommentResponseDto;
@@ -12,9 +13,7 @@ import ru.practicum.server.item.dto.ItemResponseDto;
 import ru.practicum.server.user.User;
 
 import java.time.LocalDateTime;
-import java.util.Comparator;
 import java.util.List;
-import java.util.Optional;
 
 @UtilityClass
 public class ItemMapper {
@@ -41,41 +40,56 @@ public class ItemMapper {
     }
 
     public ItemResponseDto toItemResponseDto(Item item, List<Booking> booking, List<CommentResponseDto> comment) {
-        BookingDtoForItem bookingLast = null;
-        BookingDtoForItem bookingNext = null;
-        LocalDateTime time = LocalDateTime.now();
-
-        if (!booking.isEmpty()) {
+        return toItemResponseDto(item, BookingTimeline.of(booking), LocalDateTime.now(), comment, comment.size());
+    }
 
-            Optional<Booking> bookingLastOld = booking.stream()
-                    .filter(b -> (b.getItem().getId().equals(item.getId()) && b.getStatus().equals(Status.APPROVED)))
-                    .filter(b -> (b.getStart().isBefore(time) && b.getEnd().isAfter(time)) || b.getEnd().isBefore(time))
-                    .sorted(Comparator.comparing(Booking::getId).reversed())
-                    .findFirst();
+    public ItemResponseDto toItemResponseDto(Item item, BookingTimeline timeline, LocalDateTime time,
+                                             List<CommentResponseDto> comment, long commentsCount) {
+        BookingDtoForItem bookingLast = timeline.last(item.getId(), time)
+                .map(BookingMapper::toBookingDtoForItem)
+                .orElse(null);
+        BookingDtoForItem bookingNext = timeline.next(item.getId(), time)
+                .map(BookingMapper::toBookingDtoForItem)
+                .orElse(null);
 
-            Optional<Booking> bookingNextOld = booking.stream()
-                    .filter(b -> b.getItem().getId().equals(item.getId()) && b.getStatus().equals(Status.APPROVED))
-                    .sorted(Comparator.comparing(Booking::getStart))
-                    .filter(b -> b.getStart().isAfter(time))
-                    .findFirst();
-            if (bookingLastOld.isPresent()) {
-                bookingLast = BookingMapper.toBookingDtoForItem(bookingLastOld.get());
-            }
-            if (bookingNextOld.isPresent()) {
-                bookingNext = BookingMapper.toBookingDtoForItem(bookingNextOld.get());
-            }
+        return ItemResponseDto
+                .builder()
+                .id(item.getId())
+                .name(item.getName())
+                .description(item.getDescription())
+                .owner(new ItemResponseDto.Owner(item.getOwner().getId(), item.getOwner().getName()))
+                .available(item.getAvailable())
+                .lastBooking(bookingLast)
+                .nextBooking(bookingNext)
+                .comments(comment)
+                .commentsCount(commentsCount)
+                .requestId(item.getRequestId())
+                .build();
+    }
 
+    public ItemResponseDto toItemResponseDto(ItemWithBookings item, List<CommentResponseDto> comment,
+                                             long commentsCount) {
+        BookingDtoForItem bookingLast = null;
+        BookingDtoForItem bookingNext = null;
+        if (item.getLastBookingId() != null) {
+            bookingLast = new BookingDtoForItem(item.getLastBookingId(), item.getLastBookingStart(),
+                    item.getLastBookingEnd(), item.getLastBookerId(), Status.APPROVED);
+        }
+        if (item.getNextBookingId() != null) {
+            bookingNext = new BookingDtoForItem(item.getNextBookingId(), item.getNextBookingStart(),
+                    item.getNextBookingEnd(), item.getNextBookerId(), Status.APPROVED);
         }
         return ItemResponseDto
                 .builder()
                 .id(item.getId())
                 .name(item.getName())
                 .description(item.getDescription())
-                .owner(new ItemResponseDto.Owner(item.getOwner().getId(), item.getOwner().getName()))
+                .owner(new ItemResponseDto.Owner(item.getOwnerId(), item.getOwnerName()))
                 .available(item.getAvailable())
                 .lastBooking(bookingLast)
                 .nextBooking(bookingNext)
                 .comments(comment)
+                .commentsCount(commentsCount)
                 .requestId(item.getRequestId())
                 .build();
     }
@@ -1,15 +1,130 @@
 package ru.practicum.server.item;
 
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import ru.practicum.server.user.User;
 
+import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Optional;
 
 public interface ItemRepository extends JpaRepository<Item, Long> {
     List<Item> findAllByOwnerOrderById(User user);
 
+    @Query("SELECT i.id FROM Item AS i WHERE i.owner.id = ?1")
+    List<Long> findIdsByOwnerId(Long ownerId);
+
+    @Query("SELECT i.owner.id FROM Item AS i WHERE i.id = ?1")
+    Optional<Long> findOwnerIdById(Long id);
+
+    /**
+     * Вещь вместе с владельцем одним запросом: сам Item.owner загружается лениво.
+     */
+    @EntityGraph(Item.WITH_OWNER)
+    Optional<Item> findWithOwnerById(Long id);
+
+    /**
+     * Все вещи владельца за один запрос: последнее (начавшееся) и следующее подтверждённые бронирования
+     * выбираются оконной функцией по каждой вещи, а не сортировкой всех бронирований в Java.
+     */
+    @Query(value = "SELECT i.item_id AS id, i.name AS name, i.description AS description, " +
+            "i.available AS available, i.request AS requestId, " +
+            "u.user_id AS ownerId, u.name AS ownerName, " +
+            "lb.booking_id AS lastBookingId, lb.start_date AS lastBookingStart, " +
+            "lb.end_date AS lastBookingEnd, lb.booker_id AS lastBookerId, " +
+            "nb.booking_id AS nextBookingId, nb.start_date AS nextBookingStart, " +
+            "nb.end_date AS nextBookingEnd, nb.booker_id AS nextBookerId " +
+            "FROM items AS i " +
+            "JOIN users AS u ON u.user_id = i.user_id " +
+            "LEFT JOIN (SELECT b.booking_id, b.item_id, b.start_date, b.end_date, b.booker_id, " +
+            "ROW_NUMBER() OVER (PARTITION BY b.item_id ORDER BY b.start_date DESC, b.booking_id DESC) AS rn " +
+            "FROM bookings AS b " +
+            "JOIN items AS bi ON bi.item_id = b.item_id " +
+            "WHERE bi.user_id = :ownerId AND b.status = 'APPROVED' AND b.start_date < :now) AS lb " +
+            "ON lb.item_id = i.item_id AND lb.rn = 1 " +
+            "LEFT JOIN (SELECT b.booking_id, b.item_id, b.start_date, b.end_date, b.booker_id, " +
+            "ROW_NUMBER() OVER (PARTITION BY b.item_id ORDER BY b.start_date, b.booking_id) AS rn " +
+            "FROM bookings AS b " +
+            "JOIN items AS bi ON bi.item_id = b.item_id " +
+            "WHERE bi.user_id = :ownerId AND b.status = 'APPROVED' AND b.start_date > :now) AS nb " +
+            "ON nb.item_id = i.item_id AND nb.rn = 1 " +
+            "WHERE i.user_id = :ownerId " +
+            "ORDER BY i.item_id",
+            nativeQuery = true)
+    List<ItemWithBookings> findAllWithBookingsByOwnerId(@Param("ownerId") Long ownerId,
+                                                        @Param("now") LocalDateTime now);
+
     List<Item> findByNameContainingIgnoreCaseOrDescriptionContainingIgnoreCaseAndAvailable(
             String name, String description, Boolean available);
 
     List<Item> findAllByRequestIdIn(List<Long> requestsId);
+
+    @Query("SELECT i " +
+            "FROM Item AS i " +
+            "LEFT JOIN FETCH i.owner " +
+            "ORDER BY i.id")
+    Slice<Item> findAllWithOwner(Pageable pageable);
+
+    @Query(value = "SELECT i.* " +
+            "FROM items AS i " +
+            "WHERE i.available = TRUE " +
+            "AND (lower(i.name) LIKE :pattern OR lower(i.description) LIKE :pattern) " +
+            "ORDER BY word_similarity(:text, lower(i.name)) DESC, " +
+            "word_similarity(:text, lower(i.description)) DESC, i.item_id",
+            nativeQuery = true)
+    List<Item> searchByTrigram(@Param("text") String text, @Param("pattern") String pattern, Pageable pageable);
+
+    @Query("SELECT i " +
+            "FROM Item AS i " +
+            "LEFT JOIN FETCH i.owner " +
+            "WHERE i.available = TRUE " +
+            "AND (LOWER(i.name) LIKE :pattern ESCAPE '\\' OR LOWER(i.description) LIKE :pattern ESCAPE '\\') " +
+            "ORDER BY CASE " +
+            "WHEN LOWER(i.name) = :text THEN 0 " +
+            "WHEN LOWER(i.name) LIKE :prefix ESCAPE '\\' THEN 1 " +
+            "WHEN LOWER(i.name) LIKE :pattern ESCAPE '\\' THEN 2 " +
+            "ELSE 3 END, i.id")
+    List<Item> searchRanked(@Param("text") String text, @Param("prefix") String prefix, @Param("pattern") String pattern,
+                            Pageable pageable);
+
+    /**
+     * Анти-join по исключающему GiST-индексу (item_id, tsrange(start_date, end_date)) из V6__booking_exclusion.sql:
+     * для каждой найденной вещи проверяется только пересечение её активных бронирований с окном.
+     * Выражение диапазона должно совпадать с выражением индекса, иначе он не используется.
+     */
+    @Query(value = "SELECT i.* " +
+            "FROM items AS i " +
+            "WHERE i.available = TRUE " +
+            "AND (lower(i.name) LIKE :pattern OR lower(i.description) LIKE :pattern) " +
+            "AND NOT EXISTS (SELECT 1 FROM bookings AS b " +
+            "WHERE b.item_id = i.item_id AND b.status IN ('WAITING', 'APPROVED') " +
+            "AND tsrange(b.start_date, b.end_date, '[)') && tsrange(:start, :end, '[)')) " +
+            "ORDER BY word_similarity(:text, lower(i.name)) DESC, " +
+            "word_similarity(:text, lower(i.description)) DESC, i.item_id",
+            nativeQuery = true)
+    List<Item> searchFreeByTrigram(@Param("text") String text, @Param("pattern") String pattern,
+                                   @Param("start") LocalDateTime start, @Param("end") LocalDateTime end,
+                                   Pageable pageable);
+
+    @Query("SELECT i " +
+            "FROM Item AS i " +
+            "LEFT JOIN FETCH i.owner " +
+            "WHERE i.available = TRUE " +
+            "AND (LOWER(i.name) LIKE :pattern ESCAPE '\\' OR LOWER(i.description) LIKE :pattern ESCAPE '\\') " +
+            "AND NOT EXISTS (SELECT b.id FROM Booking AS b " +
+            "WHERE b.item = i AND b.status IN (ru.practicum.server.booking.Status.WAITING, " +
+            "ru.practicum.server.booking.Status.APPROVED) " +
+            "AND b.start < :end AND b.end > :start) " +
+            "ORDER BY CASE " +
+            "WHEN LOWER(i.name) = :text THEN 0 " +
+            "WHEN LOWER(i.name) LIKE :prefix ESCAPE '\\' THEN 1 " +
+            "WHEN LOWER(i.name) LIKE :pattern ESCAPE '\\' THEN 2 " +
+            "ELSE 3 END, i.id")
+    List<Item> searchFreeRanked(@Param("text") String text, @Param("prefix") String prefix,
+                                @Param("pattern") String pattern, @Param("start") LocalDateTime start,
+                                @Param("end") LocalDateTime end, Pageable pageable);
 }
\ No newline at end of file
@@ -1,39 +1,60 @@
 package ru.practicum.server.item;
 
 import lombok.AllArgsConstructor;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
-import org.springframework.util.ReflectionUtils;
-import ru.practicum.server.booking.Booking;
+import ru.practicum.server.booking.BookingAdmission;
+import ru.practicum.server.booking.BookingCounters;
 import ru.practicum.server.booking.BookingRepository;
+import ru.practicum.server.booking.BookingTimeline;
 import ru.practicum.server.booking.Status;
 import ru.practicum.server.exceptions.ItemIsNotAvailableForBookingException;
+import ru.practicum.server.exceptions.ValidationFieldException;
 import ru.practicum.server.exceptions.ValidationIdException;
 import ru.practicum.server.item.dto.CommentDto;
 import ru.practicum.server.item.dto.CommentResponseDto;
+import ru.practicum.server.item.dto.FreeSlotDto;
 import ru.practicum.server.item.dto.ItemDto;
 import ru.practicum.server.item.dto.ItemResponseDto;
+import ru.practicum.server.item.search.ItemSearchEngine;
+import ru.practicum.server.patch.EntityPatcher;
 import ru.practicum.server.user.User;
 import ru.practicum.server.user.UserMapper;
 import ru.practicum.server.user.UserRepository;
 import ru.practicum.server.user.UserService;
 
-import java.lang.reflect.Field;
 import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
+import java.util.Optional;
 import java.util.stream.Collectors;
 
 @AllArgsConstructor
 @Service
 @Transactional(readOnly = true)
 public class ItemService {
+    public static final int MAX_SEARCH_SIZE = 100;
+    /**
+     * Сколько последних отзывов встраивается в ответ по вещи.
+     */
+    public static final int EMBEDDED_COMMENTS = 10;
+    public static final int MAX_COMMENTS_PAGE = 100;
+    private static final EntityPatcher<Item> PATCHER =
+            EntityPatcher.of(Item.class, "name", "description", "available", "requestId");
+
     private final ItemRepository itemRepository;
     private final BookingRepository bookingRepository;
     private final CommentRepository commentRepository;
     private final UserRepository userRepository;
     private final UserService service;
+    private final ItemSearchEngine searchEngine;
+    private final ItemDetailCache itemDetailCache;
+    private final BookingCounters bookingCounters;
+    private final ItemAvailabilityCache itemAvailabilityCache;
+    private final BookingAdmission bookingAdmission;
 
     @Transactional
     public ItemResponseDto create(ItemDto dto, Long userId) {
@@ -45,71 +66,140 @@ public class ItemService {
     }
 
     public List<ItemResponseDto> getAll(Long userId) {
-        User user = UserMapper.toUser(service.getById(userId));
-        List<Item> itemList = itemRepository.findAllByOwnerOrderById(user);
-        List<Long> itemIdList = itemList.stream().map(Item::getId).collect(Collectors.toList());
-
-        List<Booking> booking = bookingRepository.findAllByOwnerIdAndItemIn(userId, itemIdList);
-        List<CommentResponseDto> commentResponseDto = commentRepository.findAllByAndAuthorName(user.getName())
-                .stream()
-                .map(CommentMapper::toCommentResponseDto).collect(Collectors.toList());
+        service.checkExists(userId);
+        List<ItemWithBookings> itemList = itemRepository.findAllWithBookingsByOwnerId(userId, LocalDateTime.now());
+        ItemComments comments = loadComments(itemList.stream()
+                .map(ItemWithBookings::getId)
+                .collect(Collectors.toList()));
 
         return itemList.stream()
-                .map(item -> ItemMapper.toItemResponseDto(item, booking, commentResponseDto)).collect(Collectors.toList());
+                .map(item -> ItemMapper.toItemResponseDto(item, comments.latest(item.getId()),
+                        comments.total(item.getId())))
+                .collect(Collectors.toList());
     }
 
     public ItemResponseDto getById(Long itemId, Long userId) {
-        Item item = itemRepository.findById(itemId).orElseThrow(() -> new ValidationIdException("Item не найден"));
-        List<Booking> booking = bookingRepository.findAllByItemIdAndOwnerId(itemId, userId);
-        List<CommentResponseDto> commentResponseDto = commentRepository.findAllByItemId(itemId)
+        return itemDetailCache.get(itemId, userId, () -> loadById(itemId, userId));
+    }
+
+    private ItemResponseDto loadById(Long itemId, Long userId) {
+        Item item = itemRepository.findWithOwnerById(itemId)
+                .orElseThrow(() -> new ValidationIdException("Item не найден"));
+        BookingTimeline timeline = BookingTimeline.of(bookingRepository.findAllByItemIdAndOwnerId(itemId, userId));
+        ItemComments comments = loadComments(List.of(itemId));
+
+        return ItemMapper.toItemResponseDto(item, timeline, LocalDateTime.now(), comments.latest(itemId),
+                comments.total(itemId));
+    }
+
+    /**
+     * Отзывы вещи от новых к старым, постранично.
+     */
+    public List<CommentResponseDto> getComments(Long itemId, int from, int size) {
+        if (!itemRepository.existsById(itemId)) {
+            throw new ValidationIdException("Item не найден");
+        }
+        int limit = Math.min(size, MAX_COMMENTS_PAGE);
+        PageRequest page = PageRequest.of(from > 0 ? from / limit : 0, limit);
+        return commentRepository.findAllByItemId(itemId, page)
                 .stream()
                 .map(CommentMapper::toCommentResponseDto).collect(Collectors.toList());
+    }
 
-        return ItemMapper.toItemResponseDto(item, booking, commentResponseDto);
+    private ItemComments loadComments(List<Long> itemIds) {
+        if (itemIds.isEmpty()) {
+            return ItemComments.empty();
+        }
+        return ItemComments.of(commentRepository.findLatestByItemIdIn(itemIds, EMBEDDED_COMMENTS));
+    }
+
+    /**
+     * Свободные интервалы вещи в окне [from, to) с учётом ожидающих и подтверждённых бронирований.
+     */
+    public List<FreeSlotDto> getAvailability(Long itemId, LocalDateTime from, LocalDateTime to) {
+        if (!from.isBefore(to)) {
+            throw new ValidationFieldException("Начало интервала должно быть раньше окончания");
+        }
+        if (!itemRepository.existsById(itemId)) {
+            throw new ValidationIdException("Item не найден");
+        }
+        return itemAvailabilityCache.get(itemId, from, since -> ItemAvailability.merge(since,
+                        bookingRepository.findActiveBoundsByItemId(itemId, since)))
+                .free(from, to);
     }
 
     @Transactional
     public ItemResponseDto update(Long id, Map<Object, Object> fields, Long userId) {
-        Item item = itemRepository.findById(id).orElseThrow(() -> new ValidationIdException("Item не найден"));
+        Item item = itemRepository.findWithOwnerById(id)
+                .orElseThrow(() -> new ValidationIdException("Item не найден"));
         if (!item.getOwner().getId().equals(userId)) {
             throw new ValidationIdException("Пользователь не найден");
         }
 
-        fields.forEach((key, value) -> {
-            if (!key.equals("id")) {
-                Field field = ReflectionUtils.findField(Item.class, (String) key);
-                field.setAccessible(true);
-                ReflectionUtils.setField(field, item, value);
-            }
-        });
+        if (!PATCHER.apply(item, fields)) {
+            return ItemMapper.toItemResponseDto(item, new ArrayList<>(), new ArrayList<>());
+        }
         Item newItem = itemRepository.save(item);
+        itemDetailCache.evict(id);
         return ItemMapper.toItemResponseDto(newItem, new ArrayList<>(), new ArrayList<>());
     }
 
     @Transactional
     public void delete(Long id) {
+        Optional<Long> ownerId = itemRepository.findOwnerIdById(id);
         itemRepository.deleteById(id);
+        itemDetailCache.evict(id);
+        itemAvailabilityCache.evict(id);
+        // бронирования вещи удаляются каскадом в БД
+        ownerId.ifPresent(owner -> bookingCounters.evict(List.of(owner)));
+        bookingAdmission.evict(id);
     }
 
-    public List<ItemResponseDto> search(String text) {
+    /**
+     * Поиск по тексту; если задано окно start/end, то только среди вещей, свободных в нём.
+     */
+    public List<ItemResponseDto> search(String text, LocalDateTime start, LocalDateTime end, int from, int size) {
+        if ((start == null) != (end == null)) {
+            throw new ValidationFieldException("Для поиска свободных вещей нужны оба параметра start и end");
+        }
+        if (start != null) {
+            start = toColumnPrecision(start);
+            end = toColumnPrecision(end);
+            if (!start.isBefore(end)) {
+                throw new ValidationFieldException("Начало интервала должно быть раньше окончания");
+            }
+        }
         if (text.isEmpty()) {
             return new ArrayList<>();
         }
-        List<Item> itemList = itemRepository.findByNameContainingIgnoreCaseOrDescriptionContainingIgnoreCaseAndAvailable(
-                text, text, true);
+        int limit = Math.min(size, MAX_SEARCH_SIZE);
+        List<Item> itemList = start == null
+                ? searchEngine.search(text, from, limit)
+                : searchEngine.searchFree(text, start, end, from, limit);
         return itemList.stream().map(item -> ItemMapper.toItemResponseDto(item, new ArrayList<>(), new ArrayList<>())).collect(Collectors.toList());
     }
 
     @Transactional
     public CommentResponseDto createComment(CommentDto dto, Long userId, Long itemId) {
-        List<Booking> booking = bookingRepository.findAllByBookerIdAndItemIdAndStatusNotAndStartBefore(userId, itemId, Status.REJECTED, LocalDateTime.now());
-        if (booking.isEmpty()) {
+        if (!bookingRepository.existsByBookerIdAndItemIdAndStatusNotAndStartBefore(userId, itemId, Status.REJECTED,
+                LocalDateTime.now())) {
             throw new ItemIsNotAvailableForBookingException("Вы не можете оставить отзыв, т.к. не бронировали вещь");
         }
-        User user = userRepository.findById(userId).orElseThrow(() -> new ValidationIdException("User не найден"));
-        Item item = itemRepository.findById(itemId).orElseThrow(() -> new ValidationIdException("Item не найден"));
+        // бронирование ссылается на пользователя и вещь, значит оба существуют
+        User user = userRepository.getReferenceById(userId);
+        Item item = itemRepository.getReferenceById(itemId);
         Comment comment = CommentMapper.toComment(dto, user, item);
+        Comment newComment = commentRepository.save(comment);
+        itemDetailCache.evict(itemId);
+
+        return CommentMapper.toCommentResponseDto(newComment);
+    }
 
-        return CommentMapper.toCommentResponseDto(commentRepository.save(comment));
+    /**
+     * Округляет время до микросекунд, как его хранит колонка timestamp,
+     * иначе граница окна может не совпасть с сохранённой границей бронирования.
+     */
+    private static LocalDateTime toColumnPrecision(LocalDateTime time) {
+        return time.plusNanos(500).truncatedTo(ChronoUnit.MICROS);
     }
 }
\ No newline at end of file
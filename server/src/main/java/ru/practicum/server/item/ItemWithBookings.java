@@ -0,0 +1,39 @@
+package ru.practicum.server.item;
+
+import java.time.LocalDateTime;
+
+/**
+ * Вещь владельца вместе с уже выбранными в БД последним и следующим подтверждёнными бронированиями.
+ */
+public interface ItemWithBookings {
+
+    Long getId();
+
+    String getName();
+
+    String getDescription();
+
+    Boolean getAvailable();
+
+    Long getRequestId();
+
+    Long getOwnerId();
+
+    String getOwnerName();
+
+    Long getLastBookingId();
+
+    LocalDateTime getLastBookingStart();
+
+    LocalDateTime getLastBookingEnd();
+
+    Long getLastBookerId();
+
+    Long getNextBookingId();
+
+    LocalDateTime getNextBookingStart();
+
+    LocalDateTime getNextBookingEnd();
+
+    Long getNextBookerId();
+}
@@ -19,7 +19,12 @@ public class ItemResponseDto {
     private Long requestId;
     private BookingDtoForItem lastBooking;
     private BookingDtoForItem nextBooking;
+    /**
+     * Последние отзывы, не больше {@link ru.practicum.server.item.ItemService#EMBEDDED_COMMENTS},
+     * остальные - через GET /items/{id}/comments.
+     */
     private List<CommentResponseDto> comments;
+    private Long commentsCount;
 
     @Getter
     @Setter
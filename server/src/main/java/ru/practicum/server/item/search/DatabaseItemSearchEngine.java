@@ -0,0 +1,90 @@
+package ru.practicum.server.item.search;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.support.JdbcUtils;
+import org.springframework.jdbc.support.MetaDataAccessException;
+import org.springframework.stereotype.Component;
+import ru.practicum.server.item.Item;
+import ru.practicum.server.item.ItemRepository;
+import ru.practicum.server.user.UserRepository;
+
+import javax.sql.DataSource;
+import java.sql.DatabaseMetaData;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Locale;
+import java.util.stream.Collectors;
+
+/**
+ * Поиск средствами БД с сортировкой по релевантности.
+ * На PostgreSQL запрос идёт через GIN-индексы pg_trgm (см. db/migration/postgresql/V5__item_search_indexes.sql),
+ * на остальных БД (H2 в тестах) - через переносимый JPQL с тем же порядком выдачи в первом приближении.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = ItemSearchEngine.PROPERTY, havingValue = "database")
+public class DatabaseItemSearchEngine implements ItemSearchEngine {
+
+    private final ItemRepository itemRepository;
+    private final UserRepository userRepository;
+    private final boolean trigramSupported;
+
+    public DatabaseItemSearchEngine(ItemRepository itemRepository, UserRepository userRepository,
+                                    DataSource dataSource) {
+        this.itemRepository = itemRepository;
+        this.userRepository = userRepository;
+        this.trigramSupported = isPostgres(dataSource);
+        log.info("Поиск вещей через БД, pg_trgm {}", trigramSupported ? "используется" : "недоступен");
+    }
+
+    @Override
+    public List<Item> search(String text, int from, int size) {
+        String query = text.toLowerCase(Locale.ROOT);
+        String pattern = "%" + escapeLike(query) + "%";
+        PageRequest page = PageRequest.of(from > 0 ? from / size : 0, size);
+        if (trigramSupported) {
+            return withOwners(itemRepository.searchByTrigram(query, pattern, page));
+        }
+        return itemRepository.searchRanked(query, escapeLike(query) + "%", pattern, page);
+    }
+
+    @Override
+    public List<Item> searchFree(String text, LocalDateTime start, LocalDateTime end, int from, int size) {
+        String query = text.toLowerCase(Locale.ROOT);
+        String pattern = "%" + escapeLike(query) + "%";
+        PageRequest page = PageRequest.of(from > 0 ? from / size : 0, size);
+        if (trigramSupported) {
+            return withOwners(itemRepository.searchFreeByTrigram(query, pattern, start, end, page));
+        }
+        return itemRepository.searchFreeRanked(query, escapeLike(query) + "%", pattern, start, end, page);
+    }
+
+    /**
+     * Нативный запрос не умеет join fetch, а Item.owner ленивый: владельцы всей страницы загружаются
+     * одним запросом в контекст персистентности, и прокси владельцев дальше берут их оттуда.
+     */
+    private List<Item> withOwners(List<Item> items) {
+        userRepository.findAllById(items.stream()
+                .map(item -> item.getOwner().getId())
+                .collect(Collectors.toSet()));
+        return items;
+    }
+
+    static String escapeLike(String text) {
+        return text.replace("\\", "\\\\")
+                .replace("%", "\\%")
+                .replace("_", "\\_");
+    }
+
+    private static boolean isPostgres(DataSource dataSource) {
+        try {
+            String product = JdbcUtils.extractDatabaseMetaData(dataSource, DatabaseMetaData::getDatabaseProductName);
+            return "PostgreSQL".equalsIgnoreCase(product);
+        } catch (MetaDataAccessException e) {
+            log.warn("Не удалось определить тип БД для поиска: {}", e.getMessage());
+            return false;
+        }
+    }
+}
@@ -0,0 +1,64 @@
+package ru.practicum.server.item.search;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import ru.practicum.server.item.Item;
+import ru.practicum.server.user.User;
+
+import java.util.Locale;
+
+/**
+ * Снимок вещи, которого достаточно для ответа на поиск без обращения к БД.
+ */
+@Getter
+@AllArgsConstructor
+class IndexedItem {
+
+    private final int id;
+    private final String name;
+    private final String description;
+    private final boolean available;
+    private final Long ownerId;
+    private final String ownerName;
+    private final Long requestId;
+    private final String nameKey;
+    private final String descriptionKey;
+
+    static IndexedItem of(Item item) {
+        User owner = item.getOwner();
+        return new IndexedItem(
+                Math.toIntExact(item.getId()),
+                item.getName(),
+                item.getDescription(),
+                Boolean.TRUE.equals(item.getAvailable()),
+                owner != null ? owner.getId() : null,
+                owner != null ? owner.getName() : null,
+                item.getRequestId(),
+                normalize(item.getName()),
+                normalize(item.getDescription()));
+    }
+
+    IndexedItem withOwnerName(String newOwnerName) {
+        return new IndexedItem(id, name, description, available, ownerId, newOwnerName, requestId,
+                nameKey, descriptionKey);
+    }
+
+    boolean matches(String query) {
+        return nameKey.contains(query) || descriptionKey.contains(query);
+    }
+
+    Item toItem() {
+        return Item.builder()
+                .id((long) id)
+                .name(name)
+                .description(description)
+                .available(available)
+                .owner(ownerId != null ? new User(ownerId, ownerName) : null)
+                .requestId(requestId)
+                .build();
+    }
+
+    static String normalize(String text) {
+        return text == null ? "" : text.toLowerCase(Locale.ROOT);
+    }
+}
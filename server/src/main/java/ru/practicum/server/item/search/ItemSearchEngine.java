@@ -0,0 +1,26 @@
+package ru.practicum.server.item.search;
+
+import ru.practicum.server.item.Item;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Поиск доступных вещей по подстроке в name или description.
+ * Реализация выбирается свойством shareit.search.engine:
+ * index (по умолчанию) - in-memory индекс {@link ItemSearchIndex},
+ * database - запрос в БД {@link DatabaseItemSearchEngine}.
+ * Результаты упорядочены стабильно, поэтому from/size дают непересекающиеся страницы.
+ */
+public interface ItemSearchEngine {
+
+    String PROPERTY = "shareit.search.engine";
+
+    List<Item> search(String text, int from, int size);
+
+    /**
+     * То же, но только вещи, свободные в окне [start, end): без бронирований WAITING/APPROVED, пересекающих окно.
+     * Занятость проверяется запросами по множеству кандидатов, а не по одному запросу на вещь.
+     */
+    List<Item> searchFree(String text, LocalDateTime start, LocalDateTime end, int from, int size);
+}
@@ -0,0 +1,282 @@
+package ru.practicum.server.item.search;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import ru.practicum.server.booking.BookingRepository;
+import ru.practicum.server.item.Item;
+
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.stream.Collectors;
+
+/**
+ * Инвертированный индекс по name и description вещей.
+ * Текст режется на триграммы: это сохраняет семантику поиска по подстроке (как LIKE '%text%'),
+ * но кандидаты находятся пересечением коротких posting-листов, а не перебором всей таблицы.
+ * Запросы короче триграммы проверяются перебором снимков в памяти.
+ */
+@Component
+@ConditionalOnProperty(name = ItemSearchEngine.PROPERTY, havingValue = "index", matchIfMissing = true)
+public class ItemSearchIndex implements ItemSearchEngine {
+
+    static final int GRAM = 3;
+    /**
+     * Сколько совпадений проверяется на занятость одним запросом в {@link #searchFree}.
+     */
+    static final int FREE_BATCH = 200;
+
+    private final BookingRepository bookingRepository;
+    private final Map<String, PostingList> postings = new HashMap<>();
+    private final NavigableMap<Integer, IndexedItem> documents = new TreeMap<>();
+    /**
+     * id вещей по владельцу: переименование и удаление пользователя трогают только его вещи.
+     */
+    private final Map<Long, Set<Integer>> owners = new HashMap<>();
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    public ItemSearchIndex(BookingRepository bookingRepository) {
+        this.bookingRepository = bookingRepository;
+    }
+
+    @Override
+    public List<Item> search(String text, int from, int size) {
+        String query = IndexedItem.normalize(text);
+        if (query.isEmpty()) {
+            return new ArrayList<>();
+        }
+        return matching(query, 0, (int) Math.min((long) from + size, Integer.MAX_VALUE)).stream()
+                .skip(from)
+                .map(IndexedItem::toItem)
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * Совпадения читаются из индекса пачками по возрастанию id, занятость каждой пачки проверяется
+     * одним запросом по её id. Запросов столько, сколько пачек понадобилось до заполнения страницы.
+     */
+    @Override
+    public List<Item> searchFree(String text, LocalDateTime start, LocalDateTime end, int from, int size) {
+        String query = IndexedItem.normalize(text);
+        List<Item> result = new ArrayList<>();
+        if (query.isEmpty()) {
+            return result;
+        }
+        int skipped = 0;
+        int afterId = 0;
+        while (result.size() < size) {
+            List<IndexedItem> batch = matching(query, afterId, FREE_BATCH);
+            if (batch.isEmpty()) {
+                break;
+            }
+            afterId = batch.get(batch.size() - 1).getId();
+            List<Long> ids = batch.stream().map(doc -> (long) doc.getId()).collect(Collectors.toList());
+            Set<Long> busy = new HashSet<>(bookingRepository.findBusyItemIds(ids, start, end));
+            for (IndexedItem doc : batch) {
+                if (busy.contains((long) doc.getId())) {
+                    continue;
+                }
+                if (skipped < from) {
+                    skipped++;
+                } else if (result.size() < size) {
+                    result.add(doc.toItem());
+                }
+            }
+            if (batch.size() < FREE_BATCH) {
+                break;
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Добавляет или переиндексирует вещь.
+     */
+    public void index(Item item) {
+        if (item.getId() != null) {
+            index(IndexedItem.of(item));
+        }
+    }
+
+    void index(IndexedItem doc) {
+        lock.writeLock().lock();
+        try {
+            unlink(doc.getId());
+            link(doc);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(Long itemId) {
+        if (itemId == null) {
+            return;
+        }
+        lock.writeLock().lock();
+        try {
+            unlink(Math.toIntExact(itemId));
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Владелец удалён - вещи удалены каскадом в БД.
+     */
+    public void removeByOwner(Long ownerId) {
+        lock.writeLock().lock();
+        try {
+            Set<Integer> ids = owners.get(ownerId);
+            if (ids != null) {
+                new ArrayList<>(ids).forEach(this::unlink);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Имя владельца денормализовано в снимки, поэтому переименование пользователя нужно протащить в индекс.
+     * Снимки с тем же именем не пересоздаются.
+     */
+    public void renameOwner(Long ownerId, String ownerName) {
+        lock.writeLock().lock();
+        try {
+            Set<Integer> ids = owners.get(ownerId);
+            if (ids == null) {
+                return;
+            }
+            for (Integer id : ids) {
+                IndexedItem doc = documents.get(id);
+                if (!Objects.equals(doc.getOwnerName(), ownerName)) {
+                    documents.put(id, doc.withOwnerName(ownerName));
+                }
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void clear() {
+        lock.writeLock().lock();
+        try {
+            postings.clear();
+            documents.clear();
+            owners.clear();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return documents.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Доступные вещи, содержащие query, с id больше afterId, по возрастанию id, не больше limit.
+     */
+    private List<IndexedItem> matching(String query, int afterId, int limit) {
+        lock.readLock().lock();
+        try {
+            if (query.length() < GRAM) {
+                return documents.tailMap(afterId, false).values().stream()
+                        .filter(doc -> doc.isAvailable() && doc.matches(query))
+                        .limit(limit)
+                        .collect(Collectors.toList());
+            }
+            return intersect(query, afterId, limit);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private List<IndexedItem> intersect(String query, int afterId, int limit) {
+        Set<String> grams = grams(query);
+        List<PostingList> lists = new ArrayList<>(grams.size());
+        for (String gram : grams) {
+            PostingList list = postings.get(gram);
+            if (list == null) {
+                return new ArrayList<>();
+            }
+            lists.add(list);
+        }
+        lists.sort(Comparator.comparingInt(PostingList::size));
+
+        PostingList smallest = lists.get(0);
+        List<IndexedItem> result = new ArrayList<>(Math.min(limit, smallest.size()));
+        for (int i = smallest.indexAfter(afterId); i < smallest.size() && result.size() < limit; i++) {
+            int id = smallest.get(i);
+            if (containsInAll(lists, id)) {
+                IndexedItem doc = documents.get(id);
+                // Триграммы могут совпасть в разных местах текста - финальная проверка подстрокой.
+                if (doc.isAvailable() && doc.matches(query)) {
+                    result.add(doc);
+                }
+            }
+        }
+        return result;
+    }
+
+    private boolean containsInAll(List<PostingList> lists, int id) {
+        for (int i = 1; i < lists.size(); i++) {
+            if (!lists.get(i).contains(id)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private void link(IndexedItem doc) {
+        documents.put(doc.getId(), doc);
+        if (doc.getOwnerId() != null) {
+            owners.computeIfAbsent(doc.getOwnerId(), key -> new HashSet<>()).add(doc.getId());
+        }
+        for (String gram : grams(doc)) {
+            postings.computeIfAbsent(gram, key -> new PostingList()).add(doc.getId());
+        }
+    }
+
+    private IndexedItem unlink(int id) {
+        IndexedItem doc = documents.remove(id);
+        if (doc == null) {
+            return null;
+        }
+        Set<Integer> owned = owners.get(doc.getOwnerId());
+        if (owned != null) {
+            owned.remove(id);
+            if (owned.isEmpty()) {
+                owners.remove(doc.getOwnerId());
+            }
+        }
+        for (String gram : grams(doc)) {
+            PostingList list = postings.get(gram);
+            if (list != null) {
+                list.remove(id);
+                if (list.isEmpty()) {
+                    postings.remove(gram);
+                }
+            }
+        }
+        return doc;
+    }
+
+    private static Set<String> grams(IndexedItem doc) {
+        Set<String> grams = grams(doc.getNameKey());
+        grams.addAll(grams(doc.getDescriptionKey()));
+        return grams;
+    }
+
+    static Set<String> grams(String text) {
+        Set<String> grams = new HashSet<>();
+        for (int i = 0; i + GRAM <= text.length(); i++) {
+            grams.add(text.substring(i, i + GRAM));
+        }
+        return grams;
+    }
+}
@@ -0,0 +1,44 @@
+package ru.practicum.server.item.search;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.stereotype.Component;
+import ru.practicum.server.item.Item;
+import ru.practicum.server.item.ItemRepository;
+
+/**
+ * Перестраивает поисковый индекс из БД при старте, до того как сервер начнёт принимать запросы.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = ItemSearchEngine.PROPERTY, havingValue = "index", matchIfMissing = true)
+@RequiredArgsConstructor
+public class ItemSearchIndexInitializer implements SmartInitializingSingleton {
+
+    private static final int PAGE_SIZE = 1000;
+
+    private final ItemRepository itemRepository;
+    private final ItemSearchIndex searchIndex;
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        long startedAt = System.currentTimeMillis();
+        searchIndex.clear();
+
+        Pageable page = PageRequest.of(0, PAGE_SIZE);
+        Slice<Item> slice;
+        do {
+            slice = itemRepository.findAllWithOwner(page);
+            slice.forEach(searchIndex::index);
+            page = slice.nextPageable();
+        } while (slice.hasNext());
+
+        log.info("Поисковый индекс вещей построен: {} вещей за {} мс",
+                searchIndex.size(), System.currentTimeMillis() - startedAt);
+    }
+}
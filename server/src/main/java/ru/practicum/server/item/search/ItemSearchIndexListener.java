@@ -0,0 +1,74 @@
+package ru.practicum.server.item.search;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import ru.practicum.server.item.Item;
+import ru.practicum.server.user.User;
+
+import javax.persistence.PostPersist;
+import javax.persistence.PostRemove;
+import javax.persistence.PostUpdate;
+
+/**
+ * JPA-слушатель, который держит {@link ItemSearchIndex} в актуальном состоянии.
+ * Изменения применяются после коммита транзакции, чтобы поиск не видел незакоммиченные вещи,
+ * а вне транзакции - сразу. Снимок вещи берётся в момент записи: после коммита ленивый владелец уже недоступен.
+ * Индекс получаем через ObjectProvider: в срезах вроде @DataJpaTest его бина нет.
+ */
+public class ItemSearchIndexListener {
+
+    private final ObjectProvider<ItemSearchIndex> searchIndex;
+
+    public ItemSearchIndexListener(ObjectProvider<ItemSearchIndex> searchIndex) {
+        this.searchIndex = searchIndex;
+    }
+
+    @PostPersist
+    @PostUpdate
+    public void onSave(Object entity) {
+        ItemSearchIndex index = searchIndex.getIfAvailable();
+        if (index == null) {
+            return;
+        }
+        if (entity instanceof Item) {
+            Item item = (Item) entity;
+            if (item.getId() != null) {
+                IndexedItem doc = IndexedItem.of(item);
+                afterCommit(() -> index.index(doc));
+            }
+        } else if (entity instanceof User) {
+            Long userId = ((User) entity).getId();
+            String name = ((User) entity).getName();
+            afterCommit(() -> index.renameOwner(userId, name));
+        }
+    }
+
+    @PostRemove
+    public void onRemove(Object entity) {
+        ItemSearchIndex index = searchIndex.getIfAvailable();
+        if (index == null) {
+            return;
+        }
+        if (entity instanceof Item) {
+            Long itemId = ((Item) entity).getId();
+            afterCommit(() -> index.remove(itemId));
+        } else if (entity instanceof User) {
+            Long userId = ((User) entity).getId();
+            afterCommit(() -> index.removeByOwner(userId));
+        }
+    }
+
+    private void afterCommit(Runnable change) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            change.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                change.run();
+            }
+        });
+    }
+}
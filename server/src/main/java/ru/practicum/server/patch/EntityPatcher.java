@@ -0,0 +1,121 @@
+package ru.practicum.server.patch;
+
+import ru.practicum.server.exceptions.ValidationFieldException;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Применяет PATCH-тело к сущности через сеттеры, найденные один раз при создании.
+ * Разрешены только поля из белого списка, ключ "id" игнорируется.
+ * Значения приводятся к типу поля: числа из JSON к Long/Integer, строки "true"/"false" к Boolean.
+ */
+public final class EntityPatcher<T> {
+
+    private static final String ID = "id";
+
+    private final Class<T> type;
+    private final Map<String, Binding> bindings;
+
+    private EntityPatcher(Class<T> type, Map<String, Binding> bindings) {
+        this.type = type;
+        this.bindings = bindings;
+    }
+
+    public static <T> EntityPatcher<T> of(Class<T> type, String... fields) {
+        MethodHandles.Lookup lookup = MethodHandles.publicLookup();
+        Map<String, Binding> bindings = new HashMap<>();
+        for (String field : fields) {
+            try {
+                Class<?> fieldType = type.getDeclaredField(field).getType();
+                String suffix = Character.toUpperCase(field.charAt(0)) + field.substring(1);
+                MethodHandle getter = lookup.findVirtual(type, "get" + suffix, MethodType.methodType(fieldType))
+                        .asType(MethodType.methodType(Object.class, Object.class));
+                MethodHandle setter = lookup.findVirtual(type, "set" + suffix,
+                                MethodType.methodType(void.class, fieldType))
+                        .asType(MethodType.methodType(void.class, Object.class, Object.class));
+                bindings.put(field, new Binding(fieldType, getter, setter));
+            } catch (NoSuchFieldException | NoSuchMethodException | IllegalAccessException e) {
+                throw new IllegalStateException("Нет сеттера для поля " + type.getSimpleName() + "." + field, e);
+            }
+        }
+        return new EntityPatcher<>(type, Collections.unmodifiableMap(bindings));
+    }
+
+    /**
+     * Проверяет все поля до записи, чтобы ошибка в одном ключе не оставила сущность изменённой наполовину.
+     *
+     * @return true, если хотя бы одно значение отличалось от текущего
+     */
+    public boolean apply(T target, Map<?, ?> fields) {
+        Map<Binding, Object> values = new LinkedHashMap<>();
+        fields.forEach((key, value) -> {
+            if (ID.equals(key)) {
+                return;
+            }
+            Binding binding = bindings.get(key);
+            if (binding == null) {
+                throw new ValidationFieldException("Поле " + key + " нельзя изменить у " + type.getSimpleName());
+            }
+            values.put(binding, coerce(key, binding.fieldType, value));
+        });
+
+        boolean changed = false;
+        for (Map.Entry<Binding, Object> value : values.entrySet()) {
+            changed |= value.getKey().set(target, value.getValue());
+        }
+        return changed;
+    }
+
+    private static Object coerce(Object key, Class<?> fieldType, Object value) {
+        if (value == null || fieldType.isInstance(value)) {
+            return value;
+        }
+        if (value instanceof Number && (fieldType == Long.class || fieldType == Integer.class)) {
+            Number number = (Number) value;
+            if (number.doubleValue() != number.longValue()) {
+                throw new ValidationFieldException("Поле " + key + " должно быть целым числом");
+            }
+            return fieldType == Long.class ? (Object) number.longValue() : (Object) number.intValue();
+        }
+        if (value instanceof String && fieldType == Boolean.class) {
+            if ("true".equalsIgnoreCase((String) value) || "false".equalsIgnoreCase((String) value)) {
+                return Boolean.valueOf((String) value);
+            }
+        }
+        throw new ValidationFieldException("Неверный тип значения поля " + key);
+    }
+
+    private static final class Binding {
+        private final Class<?> fieldType;
+        private final MethodHandle getter;
+        private final MethodHandle setter;
+
+        private Binding(Class<?> fieldType, MethodHandle getter, MethodHandle setter) {
+            this.fieldType = fieldType;
+            this.getter = getter;
+            this.setter = setter;
+        }
+
+        private boolean set(Object target, Object value) {
+            try {
+                Object current = (Object) getter.invokeExact(target);
+                if (Objects.equals(current, value)) {
+                    return false;
+                }
+                setter.invokeExact(target, value);
+            } catch (RuntimeException e) {
+                throw e;
+            } catch (Throwable e) {
+                throw new IllegalStateException(e);
+            }
+            return true;
+        }
+    }
+}
@@ -24,19 +24,19 @@ public class ItemRequestService {
     private final ItemRepository itemRepository;
 
     public ItemRequestResponseDto create(ItemRequestDto dto, Long userId) {
-        userService.getById(userId);
+        userService.checkExists(userId);
         ItemRequest itemRequest = ItemRequestMapper.toItemRequest(dto, userId);
         return ItemRequestMapper.toItemRequestResponseDto(requestRepository.save(itemRequest), new ArrayList<>());
     }
 
     public List<ItemRequestResponseDto> getForUser(Long userId) {
-        userService.getById(userId);
+        userService.checkExists(userId);
         List<ItemRequest> itemRequests = requestRepository.findAllByRequestorOrderByCreatedDesc(userId);
         return getItemRequestResponseDto(itemRequests);
     }
 
     public List<ItemRequestResponseDto> getOtherUsers(Long userId, Integer from, Integer size) {
-        userService.getById(userId);
+        userService.checkExists(userId);
         PageRequest page = PageRequest.of(from > 0 ? from / size : 0, size);
         List<ItemRequest> itemRequests = requestRepository.findAllByRequestorIsNotOrderByCreatedDesc(userId, page);
         return getItemRequestResponseDto(itemRequests);
@@ -57,7 +57,7 @@ public class ItemRequestService {
     }
 
     public ItemRequestResponseDto getRequestById(Long userId, Long requestId) {
-        userService.getById(userId);
+        userService.checkExists(userId);
         ItemRequest itemRequest = requestRepository.findById(requestId)
                 .orElseThrow(() -> new ValidationIdException("Запрос не найден"));
         List<Item> items = itemRepository.findAllByRequestIdIn(List.of(itemRequest.getId()));
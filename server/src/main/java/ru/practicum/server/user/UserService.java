@@ -3,20 +3,36 @@ package ru.practicum.server.user;
 import lombok.AllArgsConstructor;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
-import org.springframework.util.ReflectionUtils;
+import ru.practicum.server.booking.BookingAdmission;
+import ru.practicum.server.booking.BookingBounds;
+import ru.practicum.server.booking.BookingCounters;
+import ru.practicum.server.booking.BookingRepository;
 import ru.practicum.server.exceptions.ValidationIdException;
+import ru.practicum.server.item.ItemAvailabilityCache;
+import ru.practicum.server.item.ItemDetailCache;
+import ru.practicum.server.item.ItemRepository;
+import ru.practicum.server.patch.EntityPatcher;
 import ru.practicum.server.user.dto.UserDto;
 
-import java.lang.reflect.Field;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import java.util.stream.Collectors;
 
 @Service
 @AllArgsConstructor
 @Transactional(readOnly = true)
 public class UserService {
+    private static final EntityPatcher<User> PATCHER = EntityPatcher.of(User.class, "name", "email");
+
     private final UserRepository userRepository;
+    private final ItemRepository itemRepository;
+    private final BookingRepository bookingRepository;
+    private final ItemDetailCache itemDetailCache;
+    private final BookingCounters bookingCounters;
+    private final ItemAvailabilityCache itemAvailabilityCache;
+    private final BookingAdmission bookingAdmission;
 
     @Transactional
     public UserDto create(UserDto dto) {
@@ -36,23 +52,41 @@ public class UserService {
         return UserMapper.toUserDto(user);
     }
 
+    /**
+     * Проверяет существование пользователя без загрузки сущности.
+     */
+    public void checkExists(Long id) {
+        if (!userRepository.existsById(id)) {
+            throw new ValidationIdException("Пользователь не найден");
+        }
+    }
+
     @Transactional
     public UserDto update(Long id, Map<Object, Object> fields) {
         User user = userRepository.findById(id).orElseThrow(() -> new ValidationIdException("Пользователь не найден"));
-        fields.forEach((key, value) -> {
-            if (!key.equals("id")) {
-                Field field = ReflectionUtils.findField(User.class, (String) key);
-                field.setAccessible(true);
-                ReflectionUtils.setField(field, user, value);
-            }
-        });
+        if (!PATCHER.apply(user, fields)) {
+            return UserMapper.toUserDto(user);
+        }
         User newUser = userRepository.save(user);
+        // Имя владельца есть в каждом закэшированном ответе о его вещах
+        itemDetailCache.clear();
         return UserMapper.toUserDto(newUser);
     }
 
     @Transactional
     public void delete(Long id) {
+        // вместе с пользователем каскадом удаляются его вещи и бронирования
+        List<Long> itemIds = itemRepository.findIdsByOwnerId(id);
+        List<BookingBounds> bookings = bookingRepository.findBoundsByBookerId(id);
         userRepository.deleteById(id);
+        itemDetailCache.clear();
+        Set<Long> owners = new HashSet<>();
+        owners.add(id);
+        bookings.forEach(booking -> owners.add(booking.getOwnerId()));
+        bookingCounters.evict(owners);
+        itemAvailabilityCache.clear();
+        itemIds.forEach(bookingAdmission::evict);
+        bookingAdmission.forget(bookings);
     }
 
 }
\ No newline at end of file
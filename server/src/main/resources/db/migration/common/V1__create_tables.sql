@@ -1,4 +1,4 @@
-DROP TABLE IF EXISTS bookings, items, comments, users, requests CASCADE;
+CREATE SEQUENCE IF NOT EXISTS items_seq START WITH 1 INCREMENT BY 50;
 
 CREATE TABLE IF NOT EXISTS users(
     user_id BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
@@ -12,7 +12,7 @@ CREATE TABLE IF NOT EXISTS requests(
     requestor BIGINT REFERENCES users(user_id) ON DELETE CASCADE);
 
 CREATE TABLE IF NOT EXISTS items(
-    item_id BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    item_id BIGINT PRIMARY KEY,
     name varchar(100),
     description varchar(100) NOT NULL,
     available boolean,
@@ -32,4 +32,4 @@ CREATE TABLE IF NOT EXISTS comments(
     text varchar(100) NOT NULL,
     item_id BIGINT REFERENCES items(item_id) ON DELETE CASCADE,
     author_name varchar NOT NULL,
-    created timestamp);
\ No newline at end of file
+    created timestamp);
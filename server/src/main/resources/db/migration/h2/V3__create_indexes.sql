@@ -0,0 +1,11 @@
+CREATE INDEX IF NOT EXISTS bookings_booker_start_idx ON bookings(booker_id, start_date DESC, booking_id DESC);
+
+CREATE INDEX IF NOT EXISTS bookings_item_status_start_idx ON bookings(item_id, status, start_date);
+
+CREATE INDEX IF NOT EXISTS items_user_idx ON items(user_id);
+
+CREATE INDEX IF NOT EXISTS items_request_idx ON items(request);
+
+CREATE INDEX IF NOT EXISTS comments_item_idx ON comments(item_id);
+
+CREATE INDEX IF NOT EXISTS requests_requestor_created_idx ON requests(requestor, created DESC);
@@ -0,0 +1,3 @@
+CREATE INDEX IF NOT EXISTS bookings_start_idx ON bookings(start_date, booking_id);
+
+CREATE INDEX IF NOT EXISTS bookings_end_idx ON bookings(end_date, booking_id);
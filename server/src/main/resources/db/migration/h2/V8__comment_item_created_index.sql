@@ -0,0 +1,3 @@
+CREATE INDEX IF NOT EXISTS comments_item_created_idx ON comments(item_id, created DESC, comment_id DESC);
+
+DROP INDEX IF EXISTS comments_item_idx;
@@ -0,0 +1,7 @@
+-- Базы, созданные до миграций через schema.sql, выдавали item_id через IDENTITY.
+-- Переводим их на items_seq так, чтобы новые id не пересеклись с уже выданными.
+CREATE SEQUENCE IF NOT EXISTS items_seq START WITH 1 INCREMENT BY 50;
+
+ALTER TABLE items ALTER COLUMN item_id DROP IDENTITY IF EXISTS;
+
+SELECT setval('items_seq', (SELECT COALESCE(MAX(item_id), 0) FROM items) + 50);
@@ -0,0 +1,12 @@
+-- CONCURRENTLY не блокирует запись в таблицы, Flyway выполняет такую миграцию вне транзакции
+CREATE INDEX CONCURRENTLY IF NOT EXISTS bookings_booker_start_idx ON bookings(booker_id, start_date DESC, booking_id DESC);
+
+CREATE INDEX CONCURRENTLY IF NOT EXISTS bookings_item_status_start_idx ON bookings(item_id, status, start_date);
+
+CREATE INDEX CONCURRENTLY IF NOT EXISTS items_user_idx ON items(user_id);
+
+CREATE INDEX CONCURRENTLY IF NOT EXISTS items_request_idx ON items(request);
+
+CREATE INDEX CONCURRENTLY IF NOT EXISTS comments_item_idx ON comments(item_id);
+
+CREATE INDEX CONCURRENTLY IF NOT EXISTS requests_requestor_created_idx ON requests(requestor, created DESC);
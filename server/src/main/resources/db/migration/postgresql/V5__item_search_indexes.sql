@@ -0,0 +1,3 @@
+CREATE INDEX CONCURRENTLY IF NOT EXISTS items_name_trgm_idx ON items USING gin (lower(name) gin_trgm_ops) WHERE available = TRUE;
+
+CREATE INDEX CONCURRENTLY IF NOT EXISTS items_description_trgm_idx ON items USING gin (lower(description) gin_trgm_ops) WHERE available = TRUE;
@@ -0,0 +1,48 @@
+CREATE EXTENSION IF NOT EXISTS btree_gist;
+
+-- Миграция не встаёт в очередь за долгими транзакциями, иначе за ней встали бы и все запросы к bookings.
+SET LOCAL lock_timeout = '10s';
+
+-- Запись в bookings ждёт до конца миграции, чтобы между разбором пересечений и ограничением не появились новые.
+LOCK TABLE bookings IN SHARE ROW EXCLUSIVE MODE;
+
+-- До ограничения пересечения бронирований одной вещи ничем не запрещались, и в старых базах они могут быть.
+-- Из каждой группы пересекающихся активных бронирований остаётся раннее (по началу, затем по id),
+-- остальные переводятся в REJECTED, иначе ограничение ниже не создастся.
+DO $$
+DECLARE
+    booking RECORD;
+    current_item BIGINT;
+    kept_until TIMESTAMP;
+    conflicts BIGINT[] := '{}';
+BEGIN
+    FOR booking IN SELECT booking_id, item_id, start_date, end_date
+                   FROM bookings
+                   WHERE status IN ('WAITING', 'APPROVED')
+                   ORDER BY item_id, start_date, booking_id
+    LOOP
+        IF current_item IS DISTINCT FROM booking.item_id THEN
+            current_item := booking.item_id;
+            kept_until := NULL;
+        END IF;
+        IF kept_until IS NOT NULL AND booking.start_date < kept_until THEN
+            conflicts := conflicts || booking.booking_id;
+        ELSE
+            kept_until := booking.end_date;
+        END IF;
+    END LOOP;
+    IF cardinality(conflicts) > 0 THEN
+        UPDATE bookings SET status = 'REJECTED' WHERE booking_id = ANY (conflicts);
+        RAISE NOTICE 'Пересекающиеся бронирования переведены в REJECTED: %', conflicts;
+    END IF;
+END $$;
+
+ALTER TABLE bookings DROP CONSTRAINT IF EXISTS bookings_item_during_excl;
+
+-- Ограничение строится по выражению, без хранимого столбца: таблица не переписывается, но на время построения
+-- GiST-индекса берётся ACCESS EXCLUSIVE (у EXCLUDE нет варианта CONCURRENTLY), и чтение bookings ждёт до коммита.
+-- Индекс (item_id, tsrange(start_date, end_date)) нужен для проверки пересечений при записи и для поиска свободных
+-- вещей; выборки бронирований по состояниям фильтруют по start_date/end_date автора или владельца и его не используют.
+ALTER TABLE bookings ADD CONSTRAINT bookings_item_during_excl
+    EXCLUDE USING gist (item_id WITH =, tsrange(start_date, end_date, '[)') WITH &&)
+    WHERE (status IN ('WAITING', 'APPROVED'));
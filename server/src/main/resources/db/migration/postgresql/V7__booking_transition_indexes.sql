@@ -0,0 +1,6 @@
+-- окно ближайших начал и окончаний подтверждённых бронирований для колеса таймеров
+CREATE INDEX CONCURRENTLY IF NOT EXISTS bookings_approved_start_idx ON bookings(start_date, booking_id)
+    WHERE status = 'APPROVED';
+
+CREATE INDEX CONCURRENTLY IF NOT EXISTS bookings_approved_end_idx ON bookings(end_date, booking_id)
+    WHERE status = 'APPROVED';
@@ -0,0 +1,4 @@
+-- последние отзывы вещи берутся по порядку индекса, отдельный индекс по item_id больше не нужен
+CREATE INDEX CONCURRENTLY IF NOT EXISTS comments_item_created_idx ON comments(item_id, created DESC, comment_id DESC);
+
+DROP INDEX CONCURRENTLY IF EXISTS comments_item_idx;
@@ -11,10 +11,12 @@ import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
 import ru.practicum.server.booking.BookingController;
+import ru.practicum.server.booking.BookingPage;
 import ru.practicum.server.booking.BookingService;
 import ru.practicum.server.booking.Status;
 import ru.practicum.server.booking.dto.BookingDto;
 import ru.practicum.server.booking.dto.BookingResponseDto;
+import ru.practicum.server.booking.dto.BookingSummaryDto;
 import ru.practicum.server.exceptions.ItemIsNotAvailableForBookingException;
 import ru.practicum.server.exceptions.ValidationIdException;
 import ru.practicum.server.item.Item;
@@ -29,6 +31,7 @@ import static org.mockito.ArgumentMatchers.*;
 import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultHandlers.print;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
@@ -99,6 +102,20 @@ public class BookingControllerTest {
                 .andExpect(jsonPath("$.booker.name").value("user"));
     }
 
+    @Test
+    public void shouldGetOwnerSummary() throws Exception {
+        when(bookingService.getOwnerSummary(anyLong())).thenReturn(new BookingSummaryDto(1, 2, 3, 4, 5));
+
+        mockMvc.perform(get("/bookings/owner/summary")
+                        .header("X-Sharer-User-Id", owner.getId()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.waiting").value(1))
+                .andExpect(jsonPath("$.upcoming").value(2))
+                .andExpect(jsonPath("$.current").value(3))
+                .andExpect(jsonPath("$.past").value(4))
+                .andExpect(jsonPath("$.rejected").value(5));
+    }
+
     @Test
     public void shouldGetBookingsById() throws Exception {
         Integer bookingId = 1;
@@ -196,8 +213,8 @@ public class BookingControllerTest {
     public void shouldBookingsAllReservation() throws Throwable {
         Integer userId = 2;
 
-        when(bookingService.getAllReserve(anyLong(), any(), anyString(), anyInt(), anyInt()))
-                .thenReturn(List.of(bookingResponseDto, bookingResponseDto, bookingResponseDto));
+        when(bookingService.getAllReserve(anyLong(), any(), anyString(), anyInt(), anyInt(), any()))
+                .thenReturn(new BookingPage(List.of(bookingResponseDto, bookingResponseDto, bookingResponseDto), null));
 
         mockMvc.perform(get("/bookings")
                         .header("X-Sharer-User-Id", userId))
@@ -210,13 +227,14 @@ public class BookingControllerTest {
     public void shouldBookingsAllReservationOwner() throws Throwable {
         Integer userId = 2;
 
-        when(bookingService.getAllReserve(anyLong(), any(), anyString(), anyInt(), anyInt()))
-                .thenReturn(List.of(bookingResponseDto, bookingResponseDto));
+        when(bookingService.getAllReserve(anyLong(), any(), anyString(), anyInt(), anyInt(), any()))
+                .thenReturn(new BookingPage(List.of(bookingResponseDto, bookingResponseDto), "next"));
 
         mockMvc.perform(get("/bookings/owner")
                         .header("X-Sharer-User-Id", userId))
                 .andDo(print())
                 .andExpect(status().isOk())
+                .andExpect(header().string("X-Next-Cursor", "next"))
                 .andExpect(jsonPath("$", hasSize(2)));
     }
 }
\ No newline at end of file
@@ -12,6 +12,7 @@ import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
 import ru.practicum.server.item.Item;
+import ru.practicum.server.item.ItemBatchService;
 import ru.practicum.server.item.ItemController;
 import ru.practicum.server.item.ItemService;
 import ru.practicum.server.item.dto.CommentDto;
@@ -37,6 +38,8 @@ public class CommentControllerTest {
 
     @MockBean
     private ItemService itemService;
+    @MockBean
+    private ItemBatchService itemBatchService;
 
 
     private User booker;
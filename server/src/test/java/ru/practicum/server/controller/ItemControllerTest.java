@@ -11,12 +11,16 @@ import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
 import ru.practicum.server.item.Item;
+import ru.practicum.server.item.ItemBatchService;
 import ru.practicum.server.item.ItemController;
 import ru.practicum.server.item.ItemService;
+import ru.practicum.server.item.dto.CommentResponseDto;
+import ru.practicum.server.item.dto.FreeSlotDto;
 import ru.practicum.server.item.dto.ItemDto;
 import ru.practicum.server.item.dto.ItemResponseDto;
 import ru.practicum.server.user.User;
 
+import java.time.LocalDateTime;
 import java.util.List;
 
 import static org.hamcrest.Matchers.hasSize;
@@ -41,6 +45,8 @@ public class ItemControllerTest {
     private ItemResponseDto itemResponseDto;
     @MockBean
     private ItemService itemService;
+    @MockBean
+    private ItemBatchService itemBatchService;
 
     @BeforeEach
     public void setUp() throws Exception {
@@ -165,7 +171,7 @@ public class ItemControllerTest {
     public void shouldSearh() throws Exception {
         Integer userId = 1;
 
-        when(itemService.search(anyString())).thenReturn(List.of(itemResponseDto, itemResponseDto));
+        when(itemService.search(anyString(), any(), any(), anyInt(), anyInt())).thenReturn(List.of(itemResponseDto, itemResponseDto));
 
         mockMvc.perform(get("/items/search?text=дрель")
                         .header("X-Sharer-User-Id", userId))
@@ -175,4 +181,41 @@ public class ItemControllerTest {
                 .andExpect(jsonPath("$[0].description").value("Простая дрель"))
                 .andExpect(jsonPath("$[0].available").value("true"));
     }
-}
\ No newline at end of file
+
+    @Test
+    public void shouldGetAvailability() throws Exception {
+        LocalDateTime from = LocalDateTime.of(2030, 1, 1, 0, 0);
+        LocalDateTime to = LocalDateTime.of(2030, 1, 10, 0, 0);
+
+        when(itemService.getAvailability(anyLong(), any(), any()))
+                .thenReturn(List.of(new FreeSlotDto(from, LocalDateTime.of(2030, 1, 3, 0, 0)),
+                        new FreeSlotDto(LocalDateTime.of(2030, 1, 5, 0, 0), to)));
+
+        mockMvc.perform(get("/items/{id}/availability", 1)
+                        .param("from", "2030-01-01T00:00:00")
+                        .param("to", "2030-01-10T00:00:00"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(2)))
+                .andExpect(jsonPath("$[0].start").value("2030-01-01T00:00:00"))
+                .andExpect(jsonPath("$[1].end").value("2030-01-10T00:00:00"));
+    }
+
+    @Test
+    public void shouldGetComments() throws Exception {
+        CommentResponseDto comment = CommentResponseDto.builder()
+                .id(1L)
+                .text("Отличная дрель")
+                .authorName(booker.getName())
+                .build();
+
+        when(itemService.getComments(anyLong(), anyInt(), anyInt())).thenReturn(List.of(comment));
+
+        mockMvc.perform(get("/items/{id}/comments", 1)
+                        .param("from", "0")
+                        .param("size", "5"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(1)))
+                .andExpect(jsonPath("$[0].text").value("Отличная дрель"))
+                .andExpect(jsonPath("$[0].authorName").value("user"));
+    }
+}
@@ -10,6 +10,7 @@ import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.test.web.servlet.setup.MockMvcBuilders;
 import org.springframework.web.context.WebApplicationContext;
+import ru.practicum.server.etag.EtagFilter;
 import ru.practicum.server.user.UserController;
 import ru.practicum.server.user.UserService;
 import ru.practicum.server.user.dto.UserDto;
@@ -23,6 +24,7 @@ import static org.mockito.ArgumentMatchers.anyLong;
 import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultHandlers.print;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
@@ -75,6 +77,23 @@ public class UserControllerTest {
                 .andExpect(jsonPath("$.name").value("user"));
     }
 
+    @Test
+    public void shouldAnswerNotModifiedForSameEtag(WebApplicationContext webApplicationContext) throws Exception {
+        when(userService.getById(any())).thenReturn(userDto);
+        MockMvc etagMockMvc = MockMvcBuilders
+                .webAppContextSetup(webApplicationContext)
+                .addFilters(new EtagFilter())
+                .build();
+
+        String etag = etagMockMvc.perform(get("/users/{id}", 1))
+                .andExpect(status().isOk())
+                .andExpect(header().exists("ETag"))
+                .andReturn().getResponse().getHeader("ETag");
+
+        etagMockMvc.perform(get("/users/{id}", 1).header("If-None-Match", etag))
+                .andExpect(status().isNotModified());
+    }
+
     @Test
     public void shouldGetAll() throws Exception {
         when(userService.getAll()).thenReturn(List.of(userDto, userDto, userDto));
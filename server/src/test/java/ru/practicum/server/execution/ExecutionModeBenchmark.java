@@ -0,0 +1,122 @@
+package ru.practicum.server.execution;
+
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import ru.practicum.server.ShareItServer;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Нагрузочное сравнение режимов shareit.threads.mode=platform и virtual на GET /users/{id}:
+ * для каждого числа одновременных запросов печатает p50 и p99 задержки и число ошибок,
+ * в конце - наибольшую параллельность, выдержанную без ошибок.
+ * Не тест: запускается вручную как main, режим virtual имеет смысл только на JDK 21+.
+ * Аргументы - уровни параллельности, по умолчанию 50 200 800 2000.
+ */
+public class ExecutionModeBenchmark {
+
+    private static final int REQUESTS_PER_CLIENT = 20;
+
+    private final HttpClient http = HttpClient.newBuilder()
+            .version(HttpClient.Version.HTTP_1_1)
+            .connectTimeout(Duration.ofSeconds(10))
+            .build();
+
+    public static void main(String[] args) throws Exception {
+        int[] levels = args.length > 0
+                ? Arrays.stream(args).mapToInt(Integer::parseInt).toArray()
+                : new int[]{50, 200, 800, 2000};
+        ExecutionModeBenchmark benchmark = new ExecutionModeBenchmark();
+        for (String mode : List.of("platform", "virtual")) {
+            benchmark.run(mode, levels);
+        }
+    }
+
+    private void run(String mode, int[] levels) throws Exception {
+        if ("virtual".equals(mode) && RequestThreads.virtualThreadExecutor().isEmpty()) {
+            System.out.printf("%s: пропущен, JDK %s без виртуальных потоков%n", mode, Runtime.version());
+            return;
+        }
+        try (ConfigurableApplicationContext context = new SpringApplicationBuilder(ShareItServer.class)
+                .properties("spring.config.name=application-test",
+                        "spring.config.location=classpath:application-test.properties",
+                        "spring.datasource.url=jdbc:h2:mem:benchmark-" + mode,
+                        "server.port=0",
+                        "server.tomcat.accept-count=10000",
+                        "server.tomcat.max-connections=20000",
+                        "shareit.threads.mode=" + mode,
+                        "logging.level.root=WARN")
+                .run()) {
+            String base = "http://localhost:" + context.getEnvironment().getProperty("local.server.port");
+            HttpResponse<String> created = http.send(HttpRequest.newBuilder(URI.create(base + "/users"))
+                    .header("Content-Type", "application/json")
+                    .POST(HttpRequest.BodyPublishers.ofString("{\"name\":\"bench\",\"email\":\"bench@test.com\"}"))
+                    .build(), HttpResponse.BodyHandlers.ofString());
+            URI user = URI.create(base + "/users/" + created.body().replaceAll(".*\"id\":(\\d+).*", "$1"));
+
+            int maxWithoutErrors = 0;
+            for (int level : levels) {
+                Result result = load(user, level);
+                System.out.printf("%-8s параллельно %5d: запросов %6d, ошибок %5d, p50 %5d мс, p99 %5d мс%n",
+                        mode, level, result.latencies.size(), result.errors, result.percentile(50),
+                        result.percentile(99));
+                if (result.errors == 0) {
+                    maxWithoutErrors = level;
+                }
+            }
+            System.out.printf("%-8s без ошибок до %d одновременных запросов%n", mode, maxWithoutErrors);
+        }
+    }
+
+    private Result load(URI uri, int level) throws InterruptedException {
+        Semaphore inFlight = new Semaphore(level);
+        List<Long> latencies = Collections.synchronizedList(new ArrayList<>());
+        AtomicInteger errors = new AtomicInteger();
+        List<CompletableFuture<?>> calls = new ArrayList<>();
+        HttpRequest request = HttpRequest.newBuilder(uri).timeout(Duration.ofSeconds(30)).GET().build();
+        for (int i = 0; i < level * REQUESTS_PER_CLIENT; i++) {
+            inFlight.acquire();
+            long started = System.nanoTime();
+            calls.add(http.sendAsync(request, HttpResponse.BodyHandlers.discarding())
+                    .whenComplete((response, e) -> {
+                        inFlight.release();
+                        if (e != null || response.statusCode() != 200) {
+                            errors.incrementAndGet();
+                        } else {
+                            latencies.add((System.nanoTime() - started) / 1_000_000);
+                        }
+                    }));
+        }
+        CompletableFuture.allOf(calls.toArray(new CompletableFuture[0])).exceptionally(e -> null).join();
+        return new Result(latencies, errors.get());
+    }
+
+    private static final class Result {
+        private final List<Long> latencies;
+        private final int errors;
+
+        private Result(List<Long> latencies, int errors) {
+            this.latencies = new ArrayList<>(latencies);
+            this.errors = errors;
+            Collections.sort(this.latencies);
+        }
+
+        private long percentile(int percent) {
+            if (latencies.isEmpty()) {
+                return 0;
+            }
+            return latencies.get(Math.min(latencies.size() - 1, latencies.size() * percent / 100));
+        }
+    }
+}
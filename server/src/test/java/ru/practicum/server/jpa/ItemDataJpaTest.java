@@ -5,12 +5,15 @@ import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
 import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.data.domain.PageRequest;
 import ru.practicum.server.item.Item;
 import ru.practicum.server.item.ItemRepository;
 import ru.practicum.server.user.User;
 import ru.practicum.server.user.UserRepository;
 
 import java.time.LocalDateTime;
+import java.util.List;
+import java.util.stream.Collectors;
 
 @DataJpaTest
 public class ItemDataJpaTest {
@@ -40,4 +43,22 @@ public class ItemDataJpaTest {
 
         Assertions.assertThat(retrievedItem).isEqualTo(savedItem);
     }
+
+    @Test
+    void testSearchRankedPutsNameMatchesFirst() {
+        User owner = userRepository.save(new User(null, "John Doe", "johndoe@example.com"));
+        Item byDescription = itemRepository.save(new Item(null, "Перфоратор", "Сверлит как дрель", owner, true, null));
+        Item byNameSubstring = itemRepository.save(new Item(null, "Аккумуляторная дрель", "Лёгкая", owner, true, null));
+        Item byExactName = itemRepository.save(new Item(null, "Дрель", "Простая", owner, true, null));
+        Item byNamePrefix = itemRepository.save(new Item(null, "Дрель ударная", "Мощная", owner, true, null));
+        itemRepository.save(new Item(null, "Дрель сломанная", "Не работает", owner, false, null));
+
+        List<Long> found = itemRepository.searchRanked("дрель", "дрель%", "%дрель%", PageRequest.of(0, 10))
+                .stream()
+                .map(Item::getId)
+                .collect(Collectors.toList());
+
+        Assertions.assertThat(found).containsExactly(
+                byExactName.getId(), byNamePrefix.getId(), byNameSubstring.getId(), byDescription.getId());
+    }
 }
\ No newline at end of file
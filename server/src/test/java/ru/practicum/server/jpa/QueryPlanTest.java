@@ -0,0 +1,157 @@
+package ru.practicum.server.jpa;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import ru.practicum.server.booking.Booking;
+import ru.practicum.server.booking.BookingCursor;
+import ru.practicum.server.booking.BookingFilter;
+import ru.practicum.server.booking.BookingRepository;
+import ru.practicum.server.booking.State;
+import ru.practicum.server.booking.Status;
+import ru.practicum.server.item.Comment;
+import ru.practicum.server.item.CommentRepository;
+import ru.practicum.server.item.Item;
+import ru.practicum.server.item.ItemRepository;
+import ru.practicum.server.request.ItemRequest;
+import ru.practicum.server.request.ItemRequestRepository;
+import ru.practicum.server.user.User;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Проверяет по EXPLAIN, что запросы репозиториев по бронированиям, вещам, отзывам и запросам
+ * идут через индексы, а не полным просмотром таблиц.
+ */
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.session_factory.statement_inspector="
+        + "ru.practicum.server.jpa.QueryPlanTest$Recorder")
+public class QueryPlanTest {
+
+    private static final Pattern TABLE_SCAN = Pattern.compile("PUBLIC\\.(\\w+)\\.tableScan");
+
+    @Autowired
+    private TestEntityManager entityManager;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    @Autowired
+    private BookingRepository bookingRepository;
+    @Autowired
+    private ItemRepository itemRepository;
+    @Autowired
+    private CommentRepository commentRepository;
+    @Autowired
+    private ItemRequestRepository itemRequestRepository;
+
+    private final LocalDateTime now = LocalDateTime.now().withNano(0);
+    private final List<User> users = new ArrayList<>();
+    private final List<Item> items = new ArrayList<>();
+
+    @BeforeEach
+    public void seed() {
+        for (int i = 0; i < 10; i++) {
+            users.add(entityManager.persist(new User(null, "User " + i, "user" + i + "@test.com")));
+        }
+        for (int i = 0; i < 50; i++) {
+            ItemRequest request = entityManager.persist(new ItemRequest(null, "Запрос " + i,
+                    now.minusDays(i), users.get(i % users.size()).getId()));
+            items.add(entityManager.persist(new Item(null, "Вещь " + i, "Описание " + i,
+                    users.get(i % users.size()), true, request.getId())));
+        }
+        for (int i = 0; i < 500; i++) {
+            Item item = items.get(i % items.size());
+            LocalDateTime start = now.plusDays(i % 40 - 20);
+            Status status = Status.values()[i % Status.values().length];
+            entityManager.persist(new Booking(null, item, start, start.plusHours(2),
+                    users.get((i + 1) % users.size()), status));
+            if (i % 5 == 0) {
+                entityManager.persist(new Comment(null, "Отзыв " + i, item, "User", now));
+            }
+        }
+        entityManager.flush();
+        entityManager.clear();
+        Recorder.STATEMENTS.clear();
+    }
+
+    @Test
+    void bookingQueriesUseIndexes() {
+        Long userId = users.get(3).getId();
+        Long itemId = items.get(3).getId();
+
+        for (State state : State.values()) {
+            bookingRepository.findPage(new BookingFilter(userId, false, state, now), null, 0, 11);
+            bookingRepository.findPage(new BookingFilter(userId, true, state, now), null, 0, 11);
+        }
+        bookingRepository.findPage(new BookingFilter(userId, false, State.ALL, now),
+                new BookingCursor(now, Long.MAX_VALUE), 0, 11);
+        bookingRepository.findAllByItemIdAndOwnerId(itemId, userId);
+        bookingRepository.findActiveBoundsByItemId(itemId, now);
+        bookingRepository.existsByBookerIdAndItemIdAndStatusNotAndStartBefore(userId, itemId, Status.REJECTED, now);
+        bookingRepository.findBookingOwner(1L, userId);
+        bookingRepository.findBookingOwnerOrBooker(1L, userId);
+
+        assertNoTableScans();
+    }
+
+    @Test
+    void bookingBoundsQueriesUseIndexes() {
+        Long userId = users.get(3).getId();
+
+        bookingRepository.countByOwnerId(userId, now);
+        bookingRepository.findApprovedBoundsByOwnerId(userId, now);
+        bookingRepository.findBoundsByBookerId(userId);
+        bookingRepository.findApprovedStartingBetween(now, now.plusHours(6), PageRequest.of(0, 100));
+        bookingRepository.findApprovedEndingBetween(now, now.plusHours(6), PageRequest.of(0, 100));
+        bookingRepository.findBusyItemIds(List.of(items.get(3).getId(), items.get(4).getId()), now, now.plusDays(1));
+
+        assertNoTableScans();
+    }
+
+    @Test
+    void itemCommentAndRequestQueriesUseIndexes() {
+        Long userId = users.get(3).getId();
+
+        itemRepository.findAllWithBookingsByOwnerId(userId, now);
+        itemRepository.findAllByOwnerOrderById(users.get(3));
+        itemRepository.findAllByRequestIdIn(List.of(items.get(0).getRequestId(), items.get(1).getRequestId()));
+        commentRepository.findAllByItemId(items.get(3).getId(), PageRequest.of(0, 10));
+        commentRepository.findLatestByItemIdIn(List.of(items.get(3).getId(), items.get(4).getId()), 10);
+        itemRequestRepository.findAllByRequestorOrderByCreatedDesc(userId);
+
+        assertNoTableScans();
+    }
+
+    private void assertNoTableScans() {
+        List<String> statements = new ArrayList<>(Recorder.STATEMENTS);
+        assertFalse(statements.isEmpty());
+        for (String sql : statements) {
+            if (!sql.trim().toLowerCase().startsWith("select")) {
+                continue;
+            }
+            String plan = jdbcTemplate.queryForObject("EXPLAIN " + sql, String.class);
+            Matcher matcher = TABLE_SCAN.matcher(plan);
+            assertFalse(matcher.find(), () -> "Полный просмотр таблицы " + matcher.group(1) + ":\n" + plan);
+        }
+    }
+
+    public static class Recorder implements StatementInspector {
+        private static final List<String> STATEMENTS = Collections.synchronizedList(new ArrayList<>());
+
+        @Override
+        public String inspect(String sql) {
+            STATEMENTS.add(sql);
+            return sql;
+        }
+    }
+}
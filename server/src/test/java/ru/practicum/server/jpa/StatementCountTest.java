@@ -0,0 +1,127 @@
+package ru.practicum.server.jpa;
+
+import lombok.RequiredArgsConstructor;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.annotation.DirtiesContext;
+import ru.practicum.server.booking.Booking;
+import ru.practicum.server.booking.BookingRepository;
+import ru.practicum.server.booking.BookingService;
+import ru.practicum.server.booking.State;
+import ru.practicum.server.booking.Status;
+import ru.practicum.server.booking.dto.BookingResponseDto;
+import ru.practicum.server.item.Comment;
+import ru.practicum.server.item.CommentRepository;
+import ru.practicum.server.item.Item;
+import ru.practicum.server.item.ItemRepository;
+import ru.practicum.server.item.ItemService;
+import ru.practicum.server.item.dto.ItemResponseDto;
+import ru.practicum.server.user.User;
+import ru.practicum.server.user.UserRepository;
+
+import javax.persistence.EntityManagerFactory;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Считает по статистике Hibernate SQL-запросы на один вызов эндпоинта:
+ * число запросов не должно зависеть от числа бронирований, вещей и пользователей в ответе.
+ */
+@SpringBootTest(properties = {
+        "spring.config.name=application-test",
+        "spring.config.location=classpath:application-test.properties",
+        "spring.jpa.properties.hibernate.generate_statistics=true"
+}, webEnvironment = SpringBootTest.WebEnvironment.NONE)
+@RequiredArgsConstructor(onConstructor_ = @Autowired)
+@DirtiesContext(classMode = DirtiesContext.ClassMode.AFTER_EACH_TEST_METHOD)
+class StatementCountTest {
+
+    private final EntityManagerFactory entityManagerFactory;
+    private final UserRepository userRepository;
+    private final ItemRepository itemRepository;
+    private final BookingRepository bookingRepository;
+    private final CommentRepository commentRepository;
+    private final BookingService bookingService;
+    private final ItemService itemService;
+
+    private final LocalDateTime now = LocalDateTime.now().withNano(0);
+    private final List<User> bookers = new ArrayList<>();
+    private final List<Item> items = new ArrayList<>();
+    private final List<Booking> bookings = new ArrayList<>();
+    private User owner;
+    private Statistics statistics;
+
+    @BeforeEach
+    public void seed() {
+        owner = userRepository.save(new User(null, "Owner", "owner@test.com"));
+        for (int i = 0; i < 3; i++) {
+            bookers.add(userRepository.save(new User(null, "Booker " + i, "booker" + i + "@test.com")));
+            items.add(itemRepository.save(new Item(null, "Вещь " + i, "Описание " + i, owner, true, null)));
+        }
+        for (int i = 0; i < items.size(); i++) {
+            for (int j = 0; j < bookers.size(); j++) {
+                LocalDateTime start = now.plusDays(i * 10L + j * 3L - 10);
+                bookings.add(bookingRepository.save(new Booking(null, items.get(i), start, start.plusDays(1),
+                        bookers.get(j), Status.APPROVED)));
+                commentRepository.save(new Comment(null, "Отзыв " + j, items.get(i), bookers.get(j).getName(), now));
+            }
+        }
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+    }
+
+    @Test
+    void ownerBookingPageIsOneQuery() throws Throwable {
+        List<BookingResponseDto> page = bookingService.getAllReserve(owner.getId(), State.ALL, "owner", 0, 20);
+
+        assertEquals(9, page.size());
+        assertEquals(1, statistics.getPrepareStatementCount());
+        assertTrue(page.stream().allMatch(booking -> booking.getBooker().getName() != null
+                && booking.getItem().getName() != null));
+    }
+
+    @Test
+    void bookerBookingPageIsOneQuery() throws Throwable {
+        List<BookingResponseDto> page = bookingService.getAllReserve(bookers.get(0).getId(), State.ALL, "booker", 0, 20);
+
+        assertEquals(3, page.size());
+        assertEquals(1, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    void bookingByIdIsOneQuery() {
+        BookingResponseDto booking = bookingService.getById(bookers.get(1).getId(), bookings.get(1).getId());
+
+        assertEquals(bookers.get(1).getName(), booking.getBooker().getName());
+        assertEquals(items.get(0).getName(), booking.getItem().getName());
+        assertEquals(1, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    void ownerItemListIsThreeQueries() {
+        List<ItemResponseDto> result = itemService.getAll(owner.getId());
+
+        assertEquals(3, result.size());
+        assertTrue(result.stream().allMatch(item -> item.getCommentsCount() == 3));
+        // проверка пользователя, вещи с бронированиями, отзывы всех вещей
+        assertEquals(3, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    void itemByIdIsThreeQueries() {
+        ItemResponseDto item = itemService.getById(items.get(1).getId(), owner.getId());
+
+        assertEquals(owner.getName(), item.getOwner().getName());
+        assertNotNull(item.getLastBooking());
+        assertNotNull(item.getNextBooking());
+        // вещь с владельцем, бронирования вещи, отзывы вещи
+        assertEquals(3, statistics.getPrepareStatementCount());
+    }
+}
@@ -0,0 +1,256 @@
+package ru.practicum.server.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import ru.practicum.server.booking.Booking;
+import ru.practicum.server.booking.BookingAdmission;
+import ru.practicum.server.booking.BookingBounds;
+import ru.practicum.server.booking.BookingRepository;
+import ru.practicum.server.booking.Status;
+import ru.practicum.server.exceptions.ItemIsNotAvailableForBookingException;
+import ru.practicum.server.item.Item;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+class BookingAdmissionTest {
+
+    private final LocalDateTime now = LocalDateTime.of(2030, 1, 10, 12, 0);
+    private BookingRepository bookingRepository;
+    private BookingAdmission admission;
+    private Item drill;
+
+    @BeforeEach
+    public void setUp() {
+        bookingRepository = mock(BookingRepository.class);
+        admission = new BookingAdmission(bookingRepository, 8);
+        drill = new Item(1L, "Дрель");
+    }
+
+    @Test
+    public void shouldRejectOverlapWithStoredBooking() {
+        List<BookingBounds> stored = List.of(bounds(10L, now, now.plusDays(2)), bounds(11L, now.plusDays(5), now.plusDays(6)));
+        when(bookingRepository.findActiveBoundsByItemId(eq(1L), any())).thenReturn(stored);
+
+        assertThrows(ItemIsNotAvailableForBookingException.class,
+                () -> admission.admit(1L, now.plusDays(1), now.plusDays(3)));
+        assertThrows(ItemIsNotAvailableForBookingException.class,
+                () -> admission.admit(1L, now.minusDays(1), now.plusDays(10)));
+        assertDoesNotThrow(() -> admission.admit(1L, now.plusDays(2), now.plusDays(5)));
+        verify(bookingRepository, times(1)).findActiveBoundsByItemId(eq(1L), any());
+    }
+
+    @Test
+    public void shouldDetectOverlapWithLongEarlierInterval() {
+        List<BookingBounds> stored = List.of(bounds(10L, now, now.plusDays(30)), bounds(11L, now.plusDays(1), now.plusDays(2)));
+        when(bookingRepository.findActiveBoundsByItemId(eq(1L), any())).thenReturn(stored);
+
+        assertThrows(ItemIsNotAvailableForBookingException.class,
+                () -> admission.admit(1L, now.plusDays(10), now.plusDays(11)));
+    }
+
+    @Test
+    public void shouldFreeSlotOnRelease() {
+        when(bookingRepository.findActiveBoundsByItemId(anyLong(), any())).thenReturn(List.of());
+        admission.admit(1L, now, now.plusDays(1)).bind(10L);
+
+        admission.release(booking(10L, now, now.plusDays(1)));
+
+        assertDoesNotThrow(() -> admission.admit(1L, now, now.plusDays(1)));
+    }
+
+    @Test
+    public void shouldNotMixItems() {
+        when(bookingRepository.findActiveBoundsByItemId(anyLong(), any())).thenReturn(List.of());
+        admission.admit(1L, now, now.plusDays(1));
+
+        assertDoesNotThrow(() -> admission.admit(2L, now, now.plusDays(1)));
+    }
+
+    @Test
+    public void shouldRemoveSlotOnRollback() {
+        when(bookingRepository.findActiveBoundsByItemId(anyLong(), any())).thenReturn(List.of());
+
+        inTransaction(TransactionSynchronization.STATUS_ROLLED_BACK,
+                () -> admission.admit(1L, now, now.plusDays(1)));
+
+        assertDoesNotThrow(() -> admission.admit(1L, now, now.plusDays(1)));
+    }
+
+    @Test
+    public void shouldKeepSlotOnCommit() {
+        when(bookingRepository.findActiveBoundsByItemId(anyLong(), any())).thenReturn(List.of());
+
+        inTransaction(TransactionSynchronization.STATUS_COMMITTED,
+                () -> admission.admit(1L, now, now.plusDays(1)).bind(10L));
+
+        assertThrows(ItemIsNotAvailableForBookingException.class,
+                () -> admission.admit(1L, now, now.plusDays(1)));
+    }
+
+    @Test
+    public void shouldRestoreSlotWhenReleaseRolledBack() {
+        when(bookingRepository.findActiveBoundsByItemId(anyLong(), any())).thenReturn(List.of());
+        admission.admit(1L, now, now.plusDays(1)).bind(10L);
+
+        inTransaction(TransactionSynchronization.STATUS_ROLLED_BACK,
+                () -> admission.release(booking(10L, now, now.plusDays(1))));
+
+        assertThrows(ItemIsNotAvailableForBookingException.class,
+                () -> admission.admit(1L, now, now.plusDays(1)));
+    }
+
+    @Test
+    public void shouldAdmitOnlyOneOfConcurrentOverlappingBookings() throws Exception {
+        when(bookingRepository.findActiveBoundsByItemId(anyLong(), any())).thenReturn(List.of());
+        int threads = 16;
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        CountDownLatch ready = new CountDownLatch(1);
+        AtomicInteger admitted = new AtomicInteger();
+        List<Future<?>> futures = new ArrayList<>();
+        for (int i = 0; i < threads; i++) {
+            LocalDateTime start = now.plusHours(i);
+            futures.add(executor.submit(() -> {
+                ready.await();
+                try {
+                    admission.admit(1L, start, start.plusDays(1));
+                    admitted.incrementAndGet();
+                } catch (ItemIsNotAvailableForBookingException ignored) {
+                    // пересекается с уже допущенным
+                }
+                return null;
+            }));
+        }
+
+        ready.countDown();
+        for (Future<?> future : futures) {
+            future.get(10, TimeUnit.SECONDS);
+        }
+        executor.shutdown();
+
+        assertEquals(1, admitted.get());
+        verify(bookingRepository, times(1)).findActiveBoundsByItemId(eq(1L), any());
+    }
+
+    @Test
+    public void shouldDropEndedSlotsOnSweep() {
+        when(bookingRepository.findActiveBoundsByItemId(anyLong(), any())).thenReturn(List.of());
+        LocalDateTime past = LocalDateTime.now().minusDays(2);
+        admission.admit(1L, past, past.plusDays(1));
+        admission.admit(2L, now, now.plusDays(1));
+
+        admission.sweep();
+
+        assertEquals(1, admission.size());
+        assertDoesNotThrow(() -> admission.admit(1L, past, past.plusDays(1)));
+        assertThrows(ItemIsNotAvailableForBookingException.class,
+                () -> admission.admit(2L, now, now.plusDays(1)));
+    }
+
+    @Test
+    public void shouldEvictDeletedItemAfterCommit() {
+        when(bookingRepository.findActiveBoundsByItemId(anyLong(), any())).thenReturn(List.of());
+        admission.admit(1L, now, now.plusDays(1));
+
+        inTransaction(TransactionSynchronization.STATUS_ROLLED_BACK, () -> admission.evict(1L));
+        assertEquals(1, admission.size());
+        inTransaction(TransactionSynchronization.STATUS_COMMITTED, () -> admission.evict(1L));
+
+        assertEquals(0, admission.size());
+        assertDoesNotThrow(() -> admission.admit(1L, now, now.plusDays(1)));
+    }
+
+    @Test
+    public void shouldForgetCascadedBookingsAfterCommit() {
+        when(bookingRepository.findActiveBoundsByItemId(anyLong(), any())).thenReturn(List.of());
+        admission.admit(1L, now, now.plusDays(1)).bind(10L);
+        BookingBounds deleted = mock(BookingBounds.class);
+        when(deleted.getId()).thenReturn(10L);
+        when(deleted.getItemId()).thenReturn(1L);
+
+        inTransaction(TransactionSynchronization.STATUS_COMMITTED, () -> admission.forget(List.of(deleted)));
+
+        assertDoesNotThrow(() -> admission.admit(1L, now, now.plusDays(1)));
+    }
+
+    @Test
+    public void shouldKeepOrderWhenSlotsAddedAndRemovedOutOfOrder() {
+        when(bookingRepository.findActiveBoundsByItemId(anyLong(), any())).thenReturn(List.of());
+        admission.admit(1L, now.plusDays(10), now.plusDays(11)).bind(12L);
+        admission.admit(1L, now, now.plusDays(8)).bind(10L);
+        admission.admit(1L, now.plusDays(8), now.plusDays(9)).bind(11L);
+
+        admission.release(booking(10L, now, now.plusDays(8)));
+
+        assertDoesNotThrow(() -> admission.admit(1L, now.plusDays(2), now.plusDays(3)));
+        assertThrows(ItemIsNotAvailableForBookingException.class,
+                () -> admission.admit(1L, now.plusDays(8), now.plusDays(10)));
+        assertDoesNotThrow(() -> admission.admit(1L, now.plusDays(9), now.plusDays(10)));
+    }
+
+    @Test
+    public void shouldReloadWhenItemUnloadedDuringQuery() {
+        BookingBounds stored = bounds(10L, now, now.plusDays(1));
+        when(bookingRepository.findActiveBoundsByItemId(eq(1L), any()))
+                .thenAnswer(invocation -> {
+                    // удаление вещи коммитится, пока идёт запрос
+                    admission.evict(1L);
+                    return List.of();
+                })
+                .thenReturn(List.of(stored));
+
+        assertThrows(ItemIsNotAvailableForBookingException.class,
+                () -> admission.admit(1L, now, now.plusDays(1)));
+        verify(bookingRepository, times(2)).findActiveBoundsByItemId(eq(1L), any());
+    }
+
+    /**
+     * Выполняет action в имитации транзакции и завершает её с указанным статусом.
+     */
+    private void inTransaction(int status, Runnable action) {
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            action.run();
+            List<TransactionSynchronization> synchronizations = TransactionSynchronizationManager.getSynchronizations();
+            if (status == TransactionSynchronization.STATUS_COMMITTED) {
+                synchronizations.forEach(TransactionSynchronization::afterCommit);
+            }
+            synchronizations.forEach(synchronization -> synchronization.afterCompletion(status));
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    private static BookingBounds bounds(Long id, LocalDateTime start, LocalDateTime end) {
+        BookingBounds bounds = mock(BookingBounds.class);
+        when(bounds.getId()).thenReturn(id);
+        when(bounds.getStart()).thenReturn(start);
+        when(bounds.getEnd()).thenReturn(end);
+        return bounds;
+    }
+
+    private Booking booking(Long id, LocalDateTime start, LocalDateTime end) {
+        return Booking.builder()
+                .id(id)
+                .item(drill)
+                .start(start)
+                .end(end)
+                .status(Status.APPROVED)
+                .build();
+    }
+}
@@ -0,0 +1,166 @@
+package ru.practicum.server.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import ru.practicum.server.booking.Booking;
+import ru.practicum.server.booking.BookingBounds;
+import ru.practicum.server.booking.BookingCounters;
+import ru.practicum.server.booking.BookingRepository;
+import ru.practicum.server.booking.OwnerBookingCounts;
+import ru.practicum.server.booking.Status;
+import ru.practicum.server.booking.dto.BookingSummaryDto;
+import ru.practicum.server.booking.transition.BookingTransitionEvent;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+class BookingCountersTest {
+
+    private BookingRepository bookingRepository;
+    private BookingCounters counters;
+
+    @BeforeEach
+    public void setUp() {
+        bookingRepository = mock(BookingRepository.class);
+        counters = new BookingCounters(bookingRepository, 2);
+        OwnerBookingCounts counts = counts(1, 0, 0, 2, 0);
+        when(bookingRepository.countByOwnerId(eq(1L), any())).thenReturn(counts);
+        when(bookingRepository.findApprovedBoundsByOwnerId(eq(1L), any())).thenReturn(List.of());
+    }
+
+    @Test
+    public void shouldServeSummaryWithoutRepeatedQueries() {
+        counters.get(1L);
+        BookingSummaryDto summary = counters.get(1L);
+
+        assertEquals(1, summary.getWaiting());
+        assertEquals(2, summary.getPast());
+        verify(bookingRepository, times(1)).countByOwnerId(eq(1L), any());
+    }
+
+    @Test
+    public void shouldCountCreatedAndApprovedBookings() {
+        counters.get(1L);
+        Booking booking = booking(10L, LocalDateTime.now().plusDays(1), LocalDateTime.now().plusDays(2), Status.WAITING);
+
+        counters.changed(1L, booking, null);
+        assertEquals(2, counters.get(1L).getWaiting());
+
+        booking.setStatus(Status.APPROVED);
+        counters.changed(1L, booking, Status.WAITING);
+        BookingSummaryDto summary = counters.get(1L);
+        assertEquals(1, summary.getWaiting());
+        assertEquals(1, summary.getUpcoming());
+        assertEquals(1, counters.tracked());
+
+        booking.setStatus(Status.REJECTED);
+        counters.changed(1L, booking, Status.APPROVED);
+        summary = counters.get(1L);
+        assertEquals(0, summary.getUpcoming());
+        assertEquals(1, summary.getRejected());
+        assertEquals(0, counters.tracked());
+    }
+
+    @Test
+    public void shouldMoveApprovedBookingsOnTransitions() {
+        LocalDateTime start = LocalDateTime.now().plusHours(1);
+        LocalDateTime end = start.plusHours(1);
+        OwnerBookingCounts counts = counts(0, 1, 0, 0, 0);
+        BookingBounds bounds = bounds(10L, start, end);
+        when(bookingRepository.countByOwnerId(eq(1L), any())).thenReturn(counts);
+        when(bookingRepository.findApprovedBoundsByOwnerId(eq(1L), any())).thenReturn(List.of(bounds));
+        counters.get(1L);
+
+        counters.onTransition(transition(10L, BookingTransitionEvent.Kind.STARTED, start));
+        counters.onTransition(transition(10L, BookingTransitionEvent.Kind.STARTED, start));
+        assertEquals(1, counters.get(1L).getCurrent());
+
+        counters.onTransition(transition(10L, BookingTransitionEvent.Kind.ENDED, end));
+        BookingSummaryDto summary = counters.get(1L);
+        assertEquals(0, summary.getUpcoming());
+        assertEquals(0, summary.getCurrent());
+        assertEquals(1, summary.getPast());
+        assertEquals(0, counters.tracked());
+    }
+
+    @Test
+    public void shouldIgnoreChangesOfOwnersNotInMemory() {
+        counters.changed(2L, booking(10L, LocalDateTime.now(), LocalDateTime.now().plusDays(1), Status.WAITING), null);
+        OwnerBookingCounts counts = counts(1, 0, 0, 0, 0);
+        when(bookingRepository.countByOwnerId(eq(2L), any())).thenReturn(counts);
+        when(bookingRepository.findApprovedBoundsByOwnerId(eq(2L), any())).thenReturn(List.of());
+
+        assertEquals(1, counters.get(2L).getWaiting());
+    }
+
+    @Test
+    public void shouldEvictOnlyGivenOwners() {
+        stubOwner(2L);
+        counters.get(1L);
+        counters.get(2L);
+
+        counters.evict(List.of(2L));
+        counters.get(1L);
+        counters.get(2L);
+
+        verify(bookingRepository, times(1)).countByOwnerId(eq(1L), any());
+        verify(bookingRepository, times(2)).countByOwnerId(eq(2L), any());
+    }
+
+    @Test
+    public void shouldEvictLeastRecentlyUsedOwnerWithItsBookings() {
+        LocalDateTime start = LocalDateTime.now().plusHours(1);
+        BookingBounds bounds = bounds(10L, start, start.plusHours(1));
+        when(bookingRepository.findApprovedBoundsByOwnerId(eq(1L), any())).thenReturn(List.of(bounds));
+        stubOwner(2L);
+        stubOwner(3L);
+        counters.get(1L);
+        counters.get(2L);
+        assertEquals(1, counters.tracked());
+
+        counters.get(3L);
+
+        assertEquals(2, counters.size());
+        assertEquals(0, counters.tracked());
+        counters.get(2L);
+        verify(bookingRepository, times(1)).countByOwnerId(eq(2L), any());
+    }
+
+    private void stubOwner(Long ownerId) {
+        OwnerBookingCounts counts = counts(0, 0, 0, 0, 0);
+        when(bookingRepository.countByOwnerId(eq(ownerId), any())).thenReturn(counts);
+        when(bookingRepository.findApprovedBoundsByOwnerId(eq(ownerId), any())).thenReturn(List.of());
+    }
+
+    private static BookingTransitionEvent transition(Long bookingId, BookingTransitionEvent.Kind kind,
+                                                     LocalDateTime at) {
+        return new BookingTransitionEvent(bookingId, 1L, 1L, kind, at);
+    }
+
+    private static Booking booking(Long id, LocalDateTime start, LocalDateTime end, Status status) {
+        return Booking.builder().id(id).start(start).end(end).status(status).build();
+    }
+
+    private static OwnerBookingCounts counts(long waiting, long upcoming, long current, long past, long rejected) {
+        OwnerBookingCounts counts = mock(OwnerBookingCounts.class);
+        when(counts.getWaiting()).thenReturn(waiting);
+        when(counts.getUpcoming()).thenReturn(upcoming);
+        when(counts.getCurrent()).thenReturn(current);
+        when(counts.getPast()).thenReturn(past);
+        when(counts.getRejected()).thenReturn(rejected);
+        return counts;
+    }
+
+    private static BookingBounds bounds(Long id, LocalDateTime start, LocalDateTime end) {
+        BookingBounds bounds = mock(BookingBounds.class);
+        when(bounds.getId()).thenReturn(id);
+        when(bounds.getStart()).thenReturn(start);
+        when(bounds.getEnd()).thenReturn(end);
+        return bounds;
+    }
+}
@@ -7,21 +7,29 @@ import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.Mockito;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.test.annotation.DirtiesContext;
 import ru.practicum.server.booking.*;
+import ru.practicum.server.booking.dto.BookingDto;
 import ru.practicum.server.booking.dto.BookingResponseDto;
+import ru.practicum.server.exceptions.ItemIsNotAvailableForBookingException;
 import ru.practicum.server.exceptions.ValidationIdException;
 import ru.practicum.server.item.Item;
+import ru.practicum.server.item.ItemRepository;
 import ru.practicum.server.user.User;
+import ru.practicum.server.user.UserService;
+import ru.practicum.server.user.dto.UserDto;
 
+import java.sql.SQLException;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.any;
-import static org.mockito.Mockito.anyLong;
+import static org.mockito.Mockito.anyInt;
 
 @ExtendWith(MockitoExtension.class)
 @DirtiesContext(classMode = DirtiesContext.ClassMode.AFTER_EACH_TEST_METHOD)
@@ -32,6 +40,12 @@ class BookingServiceMokTest {
 
     @Mock
     private BookingRepository bookingRepository;
+    @Mock
+    private ItemRepository itemRepository;
+    @Mock
+    private UserService userService;
+    @Mock
+    private BookingAdmission bookingAdmission;
     private User booker;
     private User owner;
     private Item item;
@@ -65,6 +79,18 @@ class BookingServiceMokTest {
     }
 
 
+    @Test
+    void createTranslatesExclusionViolation() {
+        BookingDto dto = new BookingDto(null, item.getId(), booking.getStart(), booking.getEnd(), null);
+        Mockito.when(itemRepository.findById(item.getId())).thenReturn(Optional.of(item));
+        Mockito.when(userService.getById(booker.getId()))
+                .thenReturn(new UserDto(booker.getId(), booker.getName(), booker.getEmail()));
+        Mockito.when(bookingRepository.saveAndFlush(any())).thenThrow(new DataIntegrityViolationException("conflict",
+                new SQLException("conflicting key value violates exclusion constraint", "23P01")));
+
+        assertThrows(ItemIsNotAvailableForBookingException.class, () -> bookingService.create(dto, booker.getId()));
+    }
+
     @Test
     void getAllBookingsStateEmpty() {
         Long userId = 1L;
@@ -77,7 +103,7 @@ class BookingServiceMokTest {
         List<Booking> bookingList = new ArrayList<>();
         PageRequest page = PageRequest.of(from > 0 ? from / size : 0, size);
 
-        Mockito.when(bookingRepository.findAllByOwnerIdAndEndBeforeOrderByStartDesc(anyLong(), any(), any()))
+        Mockito.when(bookingRepository.findPage(any(), any(), anyInt(), anyInt()))
                 .thenReturn(bookingList);
 
         assertThrows(ValidationIdException.class, () -> {
@@ -100,7 +126,7 @@ class BookingServiceMokTest {
 
         PageRequest page = PageRequest.of(from > 0 ? from / size : 0, size);
 
-        Mockito.when(bookingRepository.findAllByOwnerIdAndStartAfterOrderByStartDesc(anyLong(), any(), any()))
+        Mockito.when(bookingRepository.findPage(any(), any(), anyInt(), anyInt()))
                 .thenReturn(bookingList);
 
         List<BookingResponseDto> bookingResponseDto = bookingService.getAllReserve(userId, state, typeUser, from, size);
@@ -123,7 +149,7 @@ class BookingServiceMokTest {
 
         PageRequest page = PageRequest.of(from > 0 ? from / size : 0, size);
 
-        Mockito.when(bookingRepository.findAllByBookerIdAndStatusOrderByStartDesc(anyLong(), any(), any()))
+        Mockito.when(bookingRepository.findPage(any(), any(), anyInt(), anyInt()))
                 .thenReturn(bookingList);
 
         List<BookingResponseDto> bookingResponseDto = bookingService.getAllReserve(userId, state, typeUser, from, size);
@@ -146,7 +172,7 @@ class BookingServiceMokTest {
 
         PageRequest page = PageRequest.of(from > 0 ? from / size : 0, size);
 
-        Mockito.when(bookingRepository.findAllByBookerIdAndStartBeforeAndEndAfterOrderByStartDesc(anyLong(), any(), any(), any()))
+        Mockito.when(bookingRepository.findPage(any(), any(), anyInt(), anyInt()))
                 .thenReturn(bookingList);
 
         List<BookingResponseDto> bookingResponseDto = bookingService.getAllReserve(userId, state, typeUser, from, size);
@@ -169,7 +195,7 @@ class BookingServiceMokTest {
 
         PageRequest page = PageRequest.of(from > 0 ? from / size : 0, size);
 
-        Mockito.when(bookingRepository.findAllByBookerIdAndStatusOrderByStartDesc(anyLong(), any(), any()))
+        Mockito.when(bookingRepository.findPage(any(), any(), anyInt(), anyInt()))
                 .thenReturn(bookingList);
 
         List<BookingResponseDto> bookingResponseDto = bookingService.getAllReserve(userId, state, typeUser, from, size);
@@ -11,6 +11,7 @@ import ru.practicum.server.booking.*;
 import ru.practicum.server.booking.dto.BookingDto;
 import ru.practicum.server.booking.dto.BookingResponseDto;
 import ru.practicum.server.exceptions.ItemIsNotAvailableForBookingException;
+import ru.practicum.server.exceptions.ValidationFieldException;
 import ru.practicum.server.exceptions.ValidationIdException;
 import ru.practicum.server.item.Item;
 import ru.practicum.server.item.ItemRepository;
@@ -18,7 +19,9 @@ import ru.practicum.server.user.User;
 import ru.practicum.server.user.UserRepository;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.stream.Collectors;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -334,6 +337,11 @@ class BookingServiceTest {
         });
     }
 
+    @Test
+    public void testGetOwnerSummaryWithWrongUser() {
+        assertThrows(ValidationIdException.class, () -> bookingService.getOwnerSummary(999L));
+    }
+
     @Test
     public void testGetAllReserveForOwner() throws Throwable {
 
@@ -369,6 +377,50 @@ class BookingServiceTest {
         assertEquals(1, bookingResponseDtoList.size());
     }
 
+    @Test
+    public void testGetAllReserveWithCursor() throws Throwable {
+        User owner = new User();
+        owner.setEmail("test@test.com");
+        owner.setName("Test User");
+        userRepository.save(owner);
+
+        User booker = new User();
+        booker.setName("Test Booker");
+        booker.setEmail("Booker@Booker.com");
+        userRepository.save(booker);
+
+        Item item = new Item();
+        item.setName("Test Item");
+        item.setDescription("Test Description");
+        item.setAvailable(true);
+        item.setOwner(owner);
+        itemRepository.save(item);
+
+        LocalDateTime start = LocalDateTime.now().plusDays(1).withNano(0);
+        for (int i = 0; i < 5; i++) {
+            BookingDto bookingDto = new BookingDto();
+            bookingDto.setItemId(item.getId());
+            bookingDto.setStart(start.plusDays(i % 3));
+            bookingDto.setEnd(start.plusDays(i % 3).plusHours(1));
+            bookingRepository.save(BookingMapper.toBooking(bookingDto, item, booker));
+        }
+
+        List<Long> seen = new ArrayList<>();
+        BookingPage page = bookingService.getAllReserve(owner.getId(), State.FUTURE, "owner", 0, 2, null);
+        seen.addAll(page.getBookings().stream().map(BookingResponseDto::getId).collect(Collectors.toList()));
+        while (page.getNextCursor() != null) {
+            page = bookingService.getAllReserve(owner.getId(), State.FUTURE, "owner", 0, 2, page.getNextCursor());
+            seen.addAll(page.getBookings().stream().map(BookingResponseDto::getId).collect(Collectors.toList()));
+        }
+
+        List<Long> expected = bookingService.getAllReserve(booker.getId(), State.ALL, "booker", 0, 10)
+                .stream().map(BookingResponseDto::getId).collect(Collectors.toList());
+        assertEquals(5, seen.size());
+        assertEquals(expected, seen);
+        assertThrows(ValidationFieldException.class,
+                () -> bookingService.getAllReserve(owner.getId(), State.ALL, "owner", 0, 2, "!!!"));
+    }
+
     @Test
     public void testGetAllReserve() {
 
@@ -0,0 +1,68 @@
+package ru.practicum.server.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import ru.practicum.server.booking.Booking;
+import ru.practicum.server.booking.BookingTimeline;
+import ru.practicum.server.booking.Status;
+import ru.practicum.server.item.Item;
+import ru.practicum.server.user.User;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BookingTimelineTest {
+
+    private final LocalDateTime now = LocalDateTime.of(2030, 1, 10, 12, 0);
+    private final User booker = new User(3L, "Booker", "booker@test.com");
+    private Item drill;
+    private Item saw;
+
+    @BeforeEach
+    public void setUp() {
+        drill = new Item(1L, "Дрель");
+        saw = new Item(2L, "Пила");
+    }
+
+    @Test
+    public void shouldFindLastAndNextPerItem() {
+        BookingTimeline timeline = BookingTimeline.of(List.of(
+                booking(10L, drill, now.plusDays(5), Status.APPROVED),
+                booking(11L, drill, now.minusDays(5), Status.APPROVED),
+                booking(12L, drill, now.minusDays(1), Status.APPROVED),
+                booking(13L, drill, now.plusDays(1), Status.REJECTED),
+                booking(14L, drill, now.plusDays(2), Status.APPROVED),
+                booking(20L, saw, now.plusDays(3), Status.APPROVED)));
+
+        assertEquals(12L, timeline.last(drill.getId(), now).orElseThrow().getId());
+        assertEquals(14L, timeline.next(drill.getId(), now).orElseThrow().getId());
+        assertTrue(timeline.last(saw.getId(), now).isEmpty());
+        assertEquals(20L, timeline.next(saw.getId(), now).orElseThrow().getId());
+        assertTrue(timeline.next(99L, now).isEmpty());
+    }
+
+    @Test
+    public void shouldTreatBookingStartingNowAsNeitherLastNorNext() {
+        BookingTimeline timeline = BookingTimeline.of(List.of(
+                booking(10L, drill, now, Status.APPROVED),
+                booking(11L, drill, now.plusHours(1), Status.APPROVED)));
+
+        assertTrue(timeline.last(drill.getId(), now).isEmpty());
+        assertEquals(11L, timeline.next(drill.getId(), now).orElseThrow().getId());
+    }
+
+    @Test
+    public void shouldBeEmptyWithoutApprovedBookings() {
+        BookingTimeline timeline = BookingTimeline.of(List.of(
+                booking(10L, drill, now.minusDays(1), Status.WAITING)));
+
+        assertTrue(timeline.last(drill.getId(), now).isEmpty());
+        assertTrue(timeline.next(drill.getId(), now).isEmpty());
+    }
+
+    private Booking booking(Long id, Item item, LocalDateTime start, Status status) {
+        return new Booking(id, item, start, start.plusHours(12), booker, status);
+    }
+}
@@ -0,0 +1,83 @@
+package ru.practicum.server.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.context.ApplicationEventPublisher;
+import ru.practicum.server.booking.Booking;
+import ru.practicum.server.booking.BookingBounds;
+import ru.practicum.server.booking.BookingRepository;
+import ru.practicum.server.booking.Status;
+import ru.practicum.server.booking.transition.BookingTransitionScheduler;
+import ru.practicum.server.item.Item;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class BookingTransitionSchedulerTest {
+
+    private final Clock clock = Clock.fixed(Instant.parse("2030-01-10T12:00:00Z"), ZoneOffset.UTC);
+    private final LocalDateTime now = LocalDateTime.now(clock);
+    private BookingRepository bookingRepository;
+    private BookingTransitionScheduler scheduler;
+
+    @BeforeEach
+    public void setUp() {
+        bookingRepository = mock(BookingRepository.class);
+        scheduler = new BookingTransitionScheduler(bookingRepository, mock(ApplicationEventPublisher.class), clock,
+                Duration.ofSeconds(1), 64, Duration.ofHours(6), 100);
+    }
+
+    @Test
+    public void shouldNotBlockChangesWhileReadingDatabase() {
+        Booking approved = booking(20L, now.plusHours(1), now.plusHours(2), Status.APPROVED);
+        BookingBounds stored = bounds(10L, now.plusHours(1), now.plusHours(3));
+        when(bookingRepository.findApprovedStartingBetween(any(), any(), any())).thenAnswer(invocation -> {
+            // коммит бронирования в другом потоке, пока идёт запрос
+            CompletableFuture.runAsync(() -> scheduler.changed(1L, approved)).get(5, TimeUnit.SECONDS);
+            return List.of(stored);
+        });
+        when(bookingRepository.findApprovedEndingBetween(any(), any(), any())).thenReturn(List.of(stored));
+
+        scheduler.afterSingletonsInstantiated();
+
+        assertEquals(4, scheduler.size());
+    }
+
+    @Test
+    public void shouldPreferChangeMadeDuringRefill() {
+        Booking rejected = booking(10L, now.plusHours(1), now.plusHours(2), Status.REJECTED);
+        BookingBounds stale = bounds(10L, now.plusHours(1), now.plusHours(2));
+        when(bookingRepository.findApprovedStartingBetween(any(), any(), any())).thenAnswer(invocation -> {
+            scheduler.changed(1L, rejected);
+            return List.of(stale);
+        });
+        when(bookingRepository.findApprovedEndingBetween(any(), any(), any())).thenReturn(List.of(stale));
+
+        scheduler.afterSingletonsInstantiated();
+
+        assertEquals(0, scheduler.size());
+    }
+
+    private static Booking booking(Long id, LocalDateTime start, LocalDateTime end, Status status) {
+        return Booking.builder().id(id).item(new Item(1L, "Дрель")).start(start).end(end).status(status).build();
+    }
+
+    private static BookingBounds bounds(Long id, LocalDateTime start, LocalDateTime end) {
+        BookingBounds bounds = mock(BookingBounds.class);
+        when(bounds.getId()).thenReturn(id);
+        when(bounds.getStart()).thenReturn(start);
+        when(bounds.getEnd()).thenReturn(end);
+        return bounds;
+    }
+}
@@ -0,0 +1,53 @@
+package ru.practicum.server.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import ru.practicum.server.execution.ConnectionPoolLimiter;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ConnectionPoolLimiterTest {
+
+    @Test
+    public void shouldRejectRequestWhenAllPermitsAreBusy() throws Exception {
+        ConnectionPoolLimiter limiter = limiter("virtual");
+        MockHttpServletResponse second = new MockHttpServletResponse();
+        MockHttpServletResponse first = new MockHttpServletResponse();
+
+        limiter.doFilter(new MockHttpServletRequest("GET", "/users/1"), first, (request, response) -> {
+            assertEquals(1, limiter.getActive());
+            limiter.doFilter(new MockHttpServletRequest("GET", "/users/2"), second, new MockFilterChain());
+        });
+
+        assertEquals(200, first.getStatus());
+        assertEquals(503, second.getStatus());
+        assertTrue(second.getContentAsString().contains("ServiceUnavailable"));
+        assertEquals(1, limiter.getRejected());
+        assertEquals(0, limiter.getActive());
+    }
+
+    @Test
+    public void shouldPassEverythingInPlatformMode() throws Exception {
+        ConnectionPoolLimiter limiter = limiter("platform");
+        MockHttpServletResponse second = new MockHttpServletResponse();
+
+        limiter.doFilter(new MockHttpServletRequest("GET", "/users/1"), new MockHttpServletResponse(),
+                (request, response) -> limiter.doFilter(new MockHttpServletRequest("GET", "/users/2"), second,
+                        new MockFilterChain()));
+
+        assertEquals(200, second.getStatus());
+        assertEquals(0, limiter.getRejected());
+    }
+
+    private ConnectionPoolLimiter limiter(String mode) {
+        return new ConnectionPoolLimiter(mode, 1, Duration.ofMillis(50),
+                new StaticListableBeanFactory().getBeanProvider(DataSource.class), new ObjectMapper());
+    }
+}
@@ -0,0 +1,59 @@
+package ru.practicum.server.service;
+
+import org.junit.jupiter.api.Test;
+import ru.practicum.server.exceptions.ValidationFieldException;
+import ru.practicum.server.item.Item;
+import ru.practicum.server.patch.EntityPatcher;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class EntityPatcherTest {
+
+    private final EntityPatcher<Item> patcher =
+            EntityPatcher.of(Item.class, "name", "description", "available", "requestId");
+
+    @Test
+    public void shouldApplyWhitelistedFieldsWithCoercion() {
+        Item item = new Item(1L, "Дрель");
+        Map<Object, Object> fields = new HashMap<>();
+        fields.put("id", 99);
+        fields.put("description", "Ударная");
+        fields.put("available", "true");
+        fields.put("requestId", 7);
+
+        assertTrue(patcher.apply(item, fields));
+        assertEquals(1L, item.getId());
+        assertEquals("Ударная", item.getDescription());
+        assertEquals(true, item.getAvailable());
+        assertEquals(7L, item.getRequestId());
+    }
+
+    @Test
+    public void shouldReportNoChangeForSameValues() {
+        Item item = new Item(1L, "Дрель");
+
+        assertFalse(patcher.apply(item, Map.of("name", "Дрель")));
+    }
+
+    @Test
+    public void shouldRejectUnknownFieldWithoutPartialUpdate() {
+        Item item = new Item(1L, "Дрель");
+        Map<Object, Object> fields = new HashMap<>();
+        fields.put("name", "Пила");
+        fields.put("owner", 5);
+
+        assertThrows(ValidationFieldException.class, () -> patcher.apply(item, fields));
+        assertEquals("Дрель", item.getName());
+    }
+
+    @Test
+    public void shouldRejectWrongValueType() {
+        Item item = new Item(1L, "Дрель");
+
+        assertThrows(ValidationFieldException.class, () -> patcher.apply(item, Map.of("available", 1)));
+        assertThrows(ValidationFieldException.class, () -> patcher.apply(item, Map.of("requestId", 1.5)));
+    }
+}
@@ -0,0 +1,104 @@
+package ru.practicum.server.service;
+
+import org.junit.jupiter.api.Test;
+import ru.practicum.server.booking.BookingBounds;
+import ru.practicum.server.item.ItemAvailability;
+import ru.practicum.server.item.ItemAvailabilityCache;
+import ru.practicum.server.item.dto.FreeSlotDto;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ItemAvailabilityTest {
+
+    private final LocalDateTime base = LocalDateTime.of(2030, 1, 1, 0, 0);
+    private final AtomicInteger loads = new AtomicInteger();
+
+    @Test
+    public void shouldMergeOverlappingAndTouchingBookings() {
+        ItemAvailability availability = ItemAvailability.merge(base, List.of(
+                bounds(1, 3), bounds(2, 4), bounds(4, 5), bounds(7, 8), bounds(7, 9)));
+
+        assertEquals(2, availability.size());
+        assertEquals(List.of(slot(0, 1), slot(5, 7), slot(9, 12)), availability.free(day(0), day(12)));
+    }
+
+    @Test
+    public void shouldReturnFreeSlotsInsideWindowOnly() {
+        ItemAvailability availability = ItemAvailability.merge(base, List.of(
+                bounds(1, 3), bounds(5, 6), bounds(8, 10)));
+
+        assertEquals(List.of(slot(3, 5), slot(6, 7)), availability.free(day(2), day(7)));
+        assertEquals(List.of(), availability.free(day(8), day(9)));
+        assertEquals(List.of(slot(10, 11)), availability.free(day(10), day(11)));
+    }
+
+    @Test
+    public void shouldReturnWholeWindowWithoutBookings() {
+        ItemAvailability availability = ItemAvailability.merge(base, List.of());
+
+        assertEquals(List.of(slot(1, 2)), availability.free(day(1), day(2)));
+    }
+
+    @Test
+    public void shouldServeLaterWindowsFromCacheAndReloadAfterEvict() {
+        ItemAvailabilityCache cache = new ItemAvailabilityCache(100);
+
+        cache.get(1L, day(1), this::load);
+        cache.get(1L, day(3), this::load);
+
+        assertEquals(1, loads.get());
+        assertEquals(1, cache.getHits());
+
+        cache.evict(1L);
+        cache.get(1L, day(3), this::load);
+
+        assertEquals(2, loads.get());
+        assertEquals(1, cache.size());
+    }
+
+    private ItemAvailability load(LocalDateTime since) {
+        loads.incrementAndGet();
+        return ItemAvailability.merge(since, List.of(bounds(2, 4)));
+    }
+
+    private LocalDateTime day(int days) {
+        return base.plusDays(days);
+    }
+
+    private FreeSlotDto slot(int from, int to) {
+        return new FreeSlotDto(day(from), day(to));
+    }
+
+    private BookingBounds bounds(int from, int to) {
+        return new BookingBounds() {
+            @Override
+            public Long getId() {
+                return (long) from;
+            }
+
+            @Override
+            public Long getItemId() {
+                return 1L;
+            }
+
+            @Override
+            public Long getOwnerId() {
+                return 1L;
+            }
+
+            @Override
+            public LocalDateTime getStart() {
+                return day(from);
+            }
+
+            @Override
+            public LocalDateTime getEnd() {
+                return day(to);
+            }
+        };
+    }
+}
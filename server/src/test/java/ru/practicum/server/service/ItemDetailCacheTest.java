@@ -0,0 +1,113 @@
+package ru.practicum.server.service;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import ru.practicum.server.booking.dto.BookingDtoForItem;
+import ru.practicum.server.item.ItemDetailCache;
+import ru.practicum.server.item.dto.ItemResponseDto;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ItemDetailCacheTest {
+
+    private final AtomicInteger loads = new AtomicInteger();
+
+    @Test
+    public void shouldServeRepeatedReadsFromCache() {
+        ItemDetailCache cache = new ItemDetailCache(100, Duration.ofMinutes(5));
+
+        cache.get(1L, 2L, () -> load(1L, 1L, null));
+        ItemResponseDto second = cache.get(1L, 2L, () -> load(1L, 1L, null));
+
+        assertEquals(1, loads.get());
+        assertEquals(1L, second.getId());
+        assertEquals(1, cache.getHits());
+        assertEquals(1, cache.getMisses());
+    }
+
+    @Test
+    public void shouldKeepOwnerAndPublicViewsApart() {
+        ItemDetailCache cache = new ItemDetailCache(100, Duration.ofMinutes(5));
+
+        cache.get(1L, 1L, () -> load(1L, 1L, null));
+        cache.get(1L, 2L, () -> load(1L, 1L, null));
+        cache.get(1L, 3L, () -> load(1L, 1L, null));
+        cache.get(1L, 1L, () -> load(1L, 1L, null));
+
+        assertEquals(2, loads.get());
+    }
+
+    @Test
+    public void shouldReloadAfterEvict() {
+        ItemDetailCache cache = new ItemDetailCache(100, Duration.ofMinutes(5));
+
+        cache.get(1L, 2L, () -> load(1L, 1L, null));
+        cache.evict(1L);
+        cache.get(1L, 2L, () -> load(1L, 1L, null));
+
+        assertEquals(2, loads.get());
+        assertEquals(1, cache.size());
+    }
+
+    @Test
+    public void shouldClearAgainAfterCommit() {
+        ItemDetailCache cache = new ItemDetailCache(100, Duration.ofMinutes(5));
+
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            cache.clear();
+            // параллельное чтение до коммита кладёт в кэш старые данные
+            cache.get(1L, 2L, () -> load(1L, 1L, null));
+            assertEquals(1, cache.size());
+            TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+
+        assertEquals(0, cache.size());
+    }
+
+    @Test
+    public void shouldExpireOwnerViewWhenNextBookingStarts() {
+        ItemDetailCache cache = new ItemDetailCache(100, Duration.ofMinutes(5));
+        BookingDtoForItem next = BookingDtoForItem.builder().id(5L).start(LocalDateTime.now().minusSeconds(1)).build();
+
+        cache.get(1L, 1L, () -> load(1L, 1L, next));
+        cache.get(1L, 1L, () -> load(1L, 1L, null));
+
+        assertEquals(2, loads.get());
+    }
+
+    @Test
+    public void shouldEvictLeastRecentlyReadWhenOverWeight() {
+        ItemDetailCache cache = new ItemDetailCache(2, Duration.ofMinutes(5));
+
+        cache.get(1L, 9L, () -> load(1L, 1L, null));
+        cache.get(2L, 9L, () -> load(2L, 1L, null));
+        cache.get(1L, 9L, () -> load(1L, 1L, null));
+        cache.get(3L, 9L, () -> load(3L, 1L, null));
+
+        assertEquals(2, cache.size());
+        assertEquals(1, cache.getEvictions());
+        cache.get(1L, 9L, () -> load(1L, 1L, null));
+        assertEquals(3, loads.get());
+    }
+
+    private ItemResponseDto load(Long itemId, long ownerId, BookingDtoForItem next) {
+        loads.incrementAndGet();
+        return ItemResponseDto.builder()
+                .id(itemId)
+                .name("Дрель")
+                .owner(new ItemResponseDto.Owner(ownerId, "Owner"))
+                .available(true)
+                .nextBooking(next)
+                .comments(List.of())
+                .build();
+    }
+}
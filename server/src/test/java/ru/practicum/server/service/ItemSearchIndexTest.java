@@ -0,0 +1,148 @@
+package ru.practicum.server.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import ru.practicum.server.booking.BookingRepository;
+import ru.practicum.server.item.Item;
+import ru.practicum.server.item.search.ItemSearchIndex;
+import ru.practicum.server.item.search.ItemSearchIndexListener;
+import ru.practicum.server.user.User;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class ItemSearchIndexTest {
+
+    private final BookingRepository bookingRepository = mock(BookingRepository.class);
+    private ItemSearchIndex index;
+    private User owner;
+
+    @BeforeEach
+    public void setUp() {
+        index = new ItemSearchIndex(bookingRepository);
+        owner = new User(1L, "Owner", "owner@test.com");
+        index.index(new Item(1L, "Дрель", "Простая дрель", owner, true, null));
+        index.index(new Item(2L, "Аккумуляторная дрель", "Дрель с аккумулятором", owner, true, null));
+        index.index(new Item(3L, "Отвертка", "Аккумуляторная отвертка", owner, true, null));
+        index.index(new Item(4L, "Дрель сломанная", "Не работает", owner, false, null));
+    }
+
+    @Test
+    public void shouldFindBySubstringIgnoringCase() {
+        assertEquals(List.of(1L, 2L), ids(index.search("ДРЕЛ", 0, 10)));
+        assertEquals(List.of(2L, 3L), ids(index.search("аккумулятор", 0, 10)));
+        assertEquals(List.of(3L), ids(index.search("тверт", 0, 10)));
+    }
+
+    @Test
+    public void shouldFindByShortQuery() {
+        assertEquals(List.of(1L, 2L), ids(index.search("др", 0, 10)));
+    }
+
+    @Test
+    public void shouldNotFindUnavailableOrMissing() {
+        assertTrue(index.search("сломанная", 0, 10).isEmpty());
+        assertTrue(index.search("пила", 0, 10).isEmpty());
+        assertTrue(index.search("", 0, 10).isEmpty());
+    }
+
+    @Test
+    public void shouldReindexAndRemove() {
+        index.index(new Item(1L, "Пила", "Ручная пила", owner, true, null));
+        assertEquals(List.of(2L), ids(index.search("дрель", 0, 10)));
+        assertEquals(List.of(1L), ids(index.search("пила", 0, 10)));
+
+        index.remove(1L);
+        assertTrue(index.search("пила", 0, 10).isEmpty());
+        assertEquals(3, index.size());
+    }
+
+    @Test
+    public void shouldKeepOwnerInSync() {
+        index.renameOwner(1L, "New Owner");
+        assertEquals("New Owner", index.search("отвертка", 0, 10).get(0).getOwner().getName());
+
+        index.removeByOwner(1L);
+        assertEquals(0, index.size());
+    }
+
+    @Test
+    public void shouldPageResults() {
+        assertEquals(List.of(2L), ids(index.search("дрель", 1, 10)));
+        assertEquals(List.of(1L), ids(index.search("дрель", 0, 1)));
+        assertEquals(List.of(2L), ids(index.search("др", 1, 1)));
+    }
+
+    @Test
+    public void shouldSkipBusyItemsWithOneQueryPerBatch() {
+        LocalDateTime start = LocalDateTime.now();
+        LocalDateTime end = start.plusDays(1);
+        when(bookingRepository.findBusyItemIds(List.of(1L, 2L), start, end)).thenReturn(List.of(1L));
+
+        assertEquals(List.of(2L), ids(index.searchFree("дрель", start, end, 0, 10)));
+        assertEquals(List.of(), ids(index.searchFree("дрель", start, end, 1, 10)));
+        verify(bookingRepository, times(2)).findBusyItemIds(List.of(1L, 2L), start, end);
+    }
+
+    @Test
+    public void shouldApplyChangesOnlyAfterCommit() {
+        ItemSearchIndexListener listener = listener();
+
+        inTransaction(TransactionSynchronization.STATUS_COMMITTED, () -> {
+            listener.onSave(new Item(5L, "Пила", "Ручная пила", owner, true, null));
+            assertTrue(index.search("пила", 0, 10).isEmpty());
+        });
+
+        assertEquals(List.of(5L), ids(index.search("пила", 0, 10)));
+    }
+
+    @Test
+    public void shouldIgnoreRolledBackChanges() {
+        ItemSearchIndexListener listener = listener();
+
+        inTransaction(TransactionSynchronization.STATUS_ROLLED_BACK, () -> {
+            listener.onSave(new Item(5L, "Пила", "Ручная пила", owner, true, null));
+            listener.onSave(new User(1L, "New Owner", "owner@test.com"));
+            listener.onRemove(new Item(1L, "Дрель", "Простая дрель", owner, true, null));
+        });
+
+        assertTrue(index.search("пила", 0, 10).isEmpty());
+        assertEquals("Owner", index.search("отвертка", 0, 10).get(0).getOwner().getName());
+        assertEquals(List.of(1L, 2L), ids(index.search("дрель", 0, 10)));
+    }
+
+    @SuppressWarnings("unchecked")
+    private ItemSearchIndexListener listener() {
+        ObjectProvider<ItemSearchIndex> provider = mock(ObjectProvider.class);
+        when(provider.getIfAvailable()).thenReturn(index);
+        return new ItemSearchIndexListener(provider);
+    }
+
+    /**
+     * Выполняет action в имитации транзакции и завершает её с указанным статусом.
+     */
+    private void inTransaction(int status, Runnable action) {
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            action.run();
+            List<TransactionSynchronization> synchronizations = TransactionSynchronizationManager.getSynchronizations();
+            if (status == TransactionSynchronization.STATUS_COMMITTED) {
+                synchronizations.forEach(TransactionSynchronization::afterCommit);
+            }
+            synchronizations.forEach(synchronization -> synchronization.afterCompletion(status));
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    private List<Long> ids(List<Item> items) {
+        return items.stream().map(Item::getId).collect(Collectors.toList());
+    }
+}
\ No newline at end of file
@@ -6,6 +6,7 @@ import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.transaction.TestTransaction;
 import org.springframework.transaction.annotation.Transactional;
 import ru.practicum.server.booking.Booking;
 import ru.practicum.server.booking.BookingMapper;
@@ -13,6 +14,9 @@ import ru.practicum.server.booking.BookingRepository;
 import ru.practicum.server.booking.Status;
 import ru.practicum.server.booking.dto.BookingDto;
 import ru.practicum.server.booking.dto.BookingDtoForItem;
+import ru.practicum.server.exceptions.ItemIsNotAvailableForBookingException;
+import ru.practicum.server.exceptions.ValidationFieldException;
+import ru.practicum.server.exceptions.ValidationIdException;
 import ru.practicum.server.item.*;
 import ru.practicum.server.item.dto.*;
 import ru.practicum.server.user.User;
@@ -20,10 +24,12 @@ import ru.practicum.server.user.UserRepository;
 import ru.practicum.server.user.UserService;
 
 import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.stream.Collectors;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -45,6 +51,49 @@ class ItemServiceTest {
 
     private final UserService userService;
     private final ItemService itemService;
+    private final ItemBatchService itemBatchService;
+
+    @Test
+    public void testCreateBatch() {
+        User user = new User();
+        user.setEmail("test@test.com");
+        user.setName("Test User");
+        userRepository.save(user);
+
+        List<ItemDto> dtos = new ArrayList<>();
+        for (int i = 0; i < 120; i++) {
+            dtos.add(ItemDto.builder().id(1000L + i).name("Item " + i).description("Description").available(true).build());
+        }
+        dtos.set(7, ItemDto.builder().name("Item 7").description("").available(true).build());
+        dtos.set(8, ItemDto.builder().name("Item 8").description("Description").available(true).requestId(999L).build());
+        dtos.set(9, ItemDto.builder().name("Item 9").description("d".repeat(101)).available(true).build());
+
+        List<ItemBatchResultDto> results = itemBatchService.create(dtos, user.getId());
+
+        assertEquals(120, results.size());
+        assertEquals("Описание не может быть пустым", results.get(7).getError());
+        assertNull(results.get(7).getId());
+        assertEquals("Запрос не найден", results.get(8).getError());
+        assertEquals("Описание не может быть более 100 символов", results.get(9).getError());
+        assertEquals(117, results.stream().filter(result -> result.getId() != null).count());
+        assertEquals(117, itemRepository.count());
+        assertEquals("Item 119", itemRepository.findById(results.get(119).getId()).orElseThrow().getName());
+    }
+
+    @Test
+    public void testCreateBatchWithNullRow() {
+        User user = userRepository.save(new User(null, "Test User", "test@test.com"));
+        List<ItemDto> dtos = new ArrayList<>();
+        dtos.add(null);
+        dtos.add(ItemDto.builder().name("Item").description("Description").available(true).build());
+
+        List<ItemBatchResultDto> results = itemBatchService.create(dtos, user.getId());
+
+        assertEquals(2, results.size());
+        assertEquals("Пустая строка", results.get(0).getError());
+        assertNull(results.get(0).getId());
+        assertNotNull(results.get(1).getId());
+    }
 
     @Test
     public void testCreate() {
@@ -97,6 +146,78 @@ class ItemServiceTest {
         assertEquals(2, itemResponseDtoList.size());
     }
 
+    @Test
+    public void testGetAllResolvesLastAndNextBooking() {
+        User owner = userRepository.save(new User(null, "Owner", "owner@example.com"));
+        User booker = userRepository.save(new User(null, "Booker", "booker@example.com"));
+        Item item = itemRepository.save(new Item(null, "Item 1", "Test Description", owner, true, null));
+        Item idle = itemRepository.save(new Item(null, "Item 2", "Test Description 2", owner, true, null));
+        LocalDateTime now = LocalDateTime.now().withNano(0);
+
+        bookingRepository.save(new Booking(null, item, now.minusDays(5), now.minusDays(4), booker, Status.APPROVED));
+        Booking last = bookingRepository.save(
+                new Booking(null, item, now.minusDays(1), now.plusDays(1), booker, Status.APPROVED));
+        bookingRepository.save(new Booking(null, item, now.plusDays(2), now.plusDays(3), booker, Status.REJECTED));
+        Booking next = bookingRepository.save(
+                new Booking(null, item, now.plusDays(4), now.plusDays(5), booker, Status.APPROVED));
+        bookingRepository.save(new Booking(null, item, now.plusDays(6), now.plusDays(7), booker, Status.APPROVED));
+
+        List<ItemResponseDto> result = itemService.getAll(owner.getId());
+
+        assertEquals(2, result.size());
+        ItemResponseDto booked = result.get(0);
+        assertEquals(item.getId(), booked.getId());
+        assertEquals(owner.getName(), booked.getOwner().getName());
+        assertEquals(last.getId(), booked.getLastBooking().getId());
+        assertEquals(booker.getId(), booked.getLastBooking().getBookerId());
+        assertEquals(next.getId(), booked.getNextBooking().getId());
+        assertEquals(next.getStart(), booked.getNextBooking().getStart());
+        assertEquals(idle.getId(), result.get(1).getId());
+        assertNull(result.get(1).getLastBooking());
+        assertNull(result.get(1).getNextBooking());
+    }
+
+    @Test
+    public void testGetAllEmbedsLatestCommentsOfEachItem() {
+        User owner = userRepository.save(new User(null, "Owner", "owner@example.com"));
+        Item popular = itemRepository.save(new Item(null, "Item 1", "Test Description", owner, true, null));
+        Item quiet = itemRepository.save(new Item(null, "Item 2", "Test Description 2", owner, true, null));
+        Item other = itemRepository.save(new Item(null, "Item 3", "Test Description 3", owner, true, null));
+        LocalDateTime now = LocalDateTime.now().withNano(0);
+        for (int i = 0; i < ItemService.EMBEDDED_COMMENTS + 5; i++) {
+            commentRepository.save(new Comment(null, "Отзыв " + i, popular, "Booker", now.plusMinutes(i)));
+        }
+        commentRepository.save(new Comment(null, "Отзыв владельца", quiet, owner.getName(), now));
+
+        List<ItemResponseDto> result = itemService.getAll(owner.getId());
+
+        assertEquals(3, result.size());
+        assertEquals(ItemService.EMBEDDED_COMMENTS, result.get(0).getComments().size());
+        assertEquals(ItemService.EMBEDDED_COMMENTS + 5, result.get(0).getCommentsCount());
+        assertEquals("Отзыв " + (ItemService.EMBEDDED_COMMENTS + 4), result.get(0).getComments().get(0).getText());
+        assertEquals(1, result.get(1).getComments().size());
+        assertEquals(quiet.getId(), result.get(1).getComments().get(0).getItem().getId());
+        assertEquals(0L, result.get(2).getCommentsCount());
+        assertTrue(result.get(2).getComments().isEmpty());
+        assertEquals(other.getId(), result.get(2).getId());
+    }
+
+    @Test
+    public void testGetCommentsPaged() {
+        User owner = userRepository.save(new User(null, "Owner", "owner@example.com"));
+        Item item = itemRepository.save(new Item(null, "Item 1", "Test Description", owner, true, null));
+        LocalDateTime now = LocalDateTime.now().withNano(0);
+        for (int i = 0; i < 5; i++) {
+            commentRepository.save(new Comment(null, "Отзыв " + i, item, "Booker", now.plusMinutes(i)));
+        }
+
+        List<CommentResponseDto> page = itemService.getComments(item.getId(), 2, 2);
+
+        assertEquals(List.of("Отзыв 2", "Отзыв 1"),
+                page.stream().map(CommentResponseDto::getText).collect(Collectors.toList()));
+        assertThrows(ValidationIdException.class, () -> itemService.getComments(-1L, 0, 10));
+    }
+
     @Test
     public void testGetById() {
 
@@ -189,13 +310,43 @@ class ItemServiceTest {
         item3.setOwner(user);
         itemRepository.save(item3);
 
-        List<ItemResponseDto> result = itemService.search("test");
+        // индекс поиска обновляется после коммита
+        TestTransaction.flagForCommit();
+        TestTransaction.end();
+
+        List<ItemResponseDto> result = itemService.search("test", null, null, 0, 10);
 
         assertEquals(2, result.size());
         assertTrue(result.stream().anyMatch(item -> item.getName().equals("Test Item 1")));
         assertTrue(result.stream().anyMatch(item -> item.getName().equals("Test Item 2")));
     }
 
+    @Test
+    public void testSearchFree() {
+        User user = userRepository.save(new User(null, "Test User", "test@example.com"));
+        User booker = userRepository.save(new User(null, "booker User", "booker@booker.com"));
+        Item booked = itemRepository.save(new Item(null, "Test Item 1", "Description", user, true, null));
+        Item rejected = itemRepository.save(new Item(null, "Test Item 2", "Description", user, true, null));
+        Item free = itemRepository.save(new Item(null, "Test Item 3", "Description", user, true, null));
+        LocalDateTime start = LocalDateTime.now().plusDays(10).truncatedTo(ChronoUnit.SECONDS);
+        bookingRepository.save(new Booking(null, booked, start.plusDays(1), start.plusDays(3), booker, Status.WAITING));
+        bookingRepository.save(new Booking(null, rejected, start, start.plusDays(2), booker, Status.REJECTED));
+        bookingRepository.save(new Booking(null, free, start.minusDays(2), start, booker, Status.APPROVED));
+
+        // индекс поиска обновляется после коммита
+        TestTransaction.flagForCommit();
+        TestTransaction.end();
+
+        List<ItemResponseDto> result = itemService.search("test", start, start.plusDays(2), 0, 10);
+
+        assertEquals(List.of(rejected.getId(), free.getId()),
+                result.stream().map(ItemResponseDto::getId).collect(Collectors.toList()));
+        assertThrows(ValidationFieldException.class,
+                () -> itemService.search("test", start, null, 0, 10));
+        assertThrows(ValidationFieldException.class,
+                () -> itemService.search("test", start, start, 0, 10));
+    }
+
     @Test
     public void testCreateComment() {
         User user = new User();
@@ -238,6 +389,23 @@ class ItemServiceTest {
         assertNotNull(commentResponseDto.getItem());
     }
 
+    @Test
+    public void testCreateCommentWithoutPastBooking() {
+        User owner = userRepository.save(new User(null, "Owner", "owner@example.com"));
+        User booker = userRepository.save(new User(null, "Booker", "booker@example.com"));
+        Item item = itemRepository.save(new Item(null, "Test Item", "Description", owner, true, null));
+        LocalDateTime now = LocalDateTime.now();
+        bookingRepository.save(new Booking(null, item, now.minusDays(2), now.minusDays(1), booker, Status.REJECTED));
+        bookingRepository.save(new Booking(null, item, now.plusDays(1), now.plusDays(2), booker, Status.APPROVED));
+        CommentDto commentDto = new CommentDto();
+        commentDto.setText("Test Comment");
+
+        assertThrows(ItemIsNotAvailableForBookingException.class,
+                () -> itemService.createComment(commentDto, booker.getId(), item.getId()));
+        assertThrows(ItemIsNotAvailableForBookingException.class,
+                () -> itemService.createComment(commentDto, owner.getId(), item.getId()));
+    }
+
     @Test
     public void testItemResponseDto() {
         Long id = 1L;
@@ -251,7 +419,7 @@ class ItemServiceTest {
         List<CommentResponseDto> comments = new ArrayList<>();
 
         ItemResponseDto itemResponseDto = new ItemResponseDto(id, name, description, owner, available,
-                requestId, lastBooking, nextBooking, comments);
+                requestId, lastBooking, nextBooking, comments, 0L);
 
         Assertions.assertEquals(id, itemResponseDto.getId());
         Assertions.assertEquals(name, itemResponseDto.getName());
@@ -262,6 +430,7 @@ class ItemServiceTest {
         Assertions.assertEquals(lastBooking, itemResponseDto.getLastBooking());
         Assertions.assertEquals(nextBooking, itemResponseDto.getNextBooking());
         Assertions.assertEquals(comments, itemResponseDto.getComments());
+        Assertions.assertEquals(0L, itemResponseDto.getCommentsCount());
     }
 
 
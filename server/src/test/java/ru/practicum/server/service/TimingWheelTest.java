@@ -0,0 +1,69 @@
+package ru.practicum.server.service;
+
+import org.junit.jupiter.api.Test;
+import ru.practicum.server.booking.transition.TimingWheel;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TimingWheelTest {
+
+    private final TimingWheel<String, String> wheel = new TimingWheel<>(10, 8, 0);
+
+    @Test
+    public void shouldFireNotEarlierThanScheduledAndWithinTick() {
+        wheel.add("a", 25, "a");
+
+        assertEquals(List.of(), wheel.advance(24));
+        assertEquals(List.of(), wheel.advance(29));
+        assertEquals(List.of("a"), wheel.advance(30));
+        assertEquals(0, wheel.size());
+    }
+
+    @Test
+    public void shouldCascadeEntriesFromOverflowLevels() {
+        wheel.add("b", 95, "b");
+        wheel.add("c", 700, "c");
+
+        assertEquals(List.of(), wheel.advance(94));
+        assertEquals(List.of("b"), wheel.advance(100));
+        assertEquals(List.of(), wheel.advance(699));
+        assertEquals(List.of("c"), wheel.advance(710));
+    }
+
+    @Test
+    public void shouldFireEverythingDueAfterLongPause() {
+        for (int i = 0; i < 100; i++) {
+            wheel.add("k" + i, 10L + i * 37, "v" + i);
+        }
+
+        List<String> due = wheel.advance(100_000);
+
+        assertEquals(100, due.size());
+        assertEquals("v0", due.get(0));
+        assertEquals("v99", due.get(99));
+        assertEquals(0, wheel.size());
+    }
+
+    @Test
+    public void shouldCancelAndRescheduleByKey() {
+        wheel.add("a", 25, "a");
+        wheel.add("b", 35, "b");
+        wheel.cancel("a");
+        wheel.add("b", 500, "b");
+
+        assertFalse(wheel.add("b", 500, "b"));
+        assertEquals(List.of(), wheel.advance(100));
+        assertTrue(wheel.contains("b"));
+        assertEquals(List.of("b"), wheel.advance(510));
+    }
+
+    @Test
+    public void shouldFireEntriesAddedInThePastOnNextAdvance() {
+        wheel.advance(1000);
+        wheel.add("late", 500, "late");
+
+        assertEquals(List.of("late"), wheel.advance(1000));
+    }
+}
@@ -9,6 +9,7 @@ import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.test.annotation.DirtiesContext;
 import org.springframework.test.context.jdbc.Sql;
 import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.server.exceptions.ValidationIdException;
 import ru.practicum.server.user.User;
 import ru.practicum.server.user.UserRepository;
 import ru.practicum.server.user.UserService;
@@ -95,6 +96,14 @@ class UserServiceTest {
         Assertions.assertEquals(user.getName(), userDto.getName());
     }
 
+    @Test
+    public void testCheckExists() {
+        User user = userRepository.save(new User(null, "Test User", "test@test.com"));
+
+        userService.checkExists(user.getId());
+        assertThrows(ValidationIdException.class, () -> userService.checkExists(user.getId() + 1));
+    }
+
     @Test
     public void testUpdate() {
         User user = new User();